@@ -107,6 +107,21 @@ tasks.getByName<ProcessResources>("processResources") {
     }
 }
 
+tasks.create<JavaExec>("analyzeRegions") {
+    group = "framed"
+    description = "Reports frame contents of a world's region files. Pass the world with -Pworld=<dir>."
+
+    classpath = sourceSets["main"].runtimeClasspath
+    main = "dev.alexnader.framed.tool.FrameRegionAnalyzer"
+    args = listOfNotNull(
+        project.findProperty("world")?.toString(),
+        project.findProperty("threads")?.let { "--threads" },
+        project.findProperty("threads")?.toString(),
+        project.findProperty("top")?.let { "--top" },
+        project.findProperty("top")?.toString()
+    )
+}
+
 val remapJar = tasks.getByName<RemapJarTask>("remapJar")
 
 publishing {
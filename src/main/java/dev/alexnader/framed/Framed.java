@@ -1,13 +1,20 @@
 package dev.alexnader.framed;
 
+import dev.alexnader.framed.block.entity.FrameIndex;
+import dev.alexnader.framed.command.FramedCommand;
 import dev.alexnader.framed.data.OverlayDataListener;
 import dev.alexnader.framed.items.SpecialItems;
+import dev.alexnader.framed.job.FrameJobs;
+import dev.alexnader.framed.stats.FrameStats;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v1.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
 import net.minecraft.resource.ResourceType;
 
 public class Framed implements ModInitializer {
-    public static FramedProperties PROPERTIES;
     public static SpecialItems SPECIAL_ITEMS;
 
     public static FramedMeta META;
@@ -17,9 +24,12 @@ public class Framed implements ModInitializer {
 
     public static OverlayDataListener OVERLAYS;
 
+    public static FrameIndex FRAME_INDEX;
+    public static FrameStats FRAME_STATS;
+    public static FrameJobs JOBS;
+
     @Override
     public void onInitialize() {
-        PROPERTIES = new FramedProperties();
         SPECIAL_ITEMS = new SpecialItems();
 
         META = new FramedMeta();
@@ -29,5 +39,20 @@ public class Framed implements ModInitializer {
 
         OVERLAYS = new OverlayDataListener();
         ResourceManagerHelper.get(ResourceType.SERVER_DATA).registerReloadListener(OVERLAYS);
+
+        FRAME_INDEX = new FrameIndex();
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register(FRAME_INDEX::onLoad);
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register(FRAME_INDEX::onUnload);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> FRAME_INDEX.clear());
+
+        FRAME_STATS = new FrameStats();
+        ServerTickEvents.END_SERVER_TICK.register(FRAME_STATS::tick);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> FRAME_STATS.clear());
+
+        JOBS = new FrameJobs();
+        ServerTickEvents.END_SERVER_TICK.register(JOBS::tick);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> JOBS.cancelAll());
+
+        CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> FramedCommand.register(dispatcher));
     }
 }
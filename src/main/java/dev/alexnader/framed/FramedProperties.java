@@ -1,7 +0,0 @@
-package dev.alexnader.framed;
-
-import net.minecraft.state.property.BooleanProperty;
-
-public class FramedProperties {
-    public final BooleanProperty HAS_REDSTONE = BooleanProperty.of("has_redstone");
-}
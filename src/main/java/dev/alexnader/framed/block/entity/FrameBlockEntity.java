@@ -4,6 +4,10 @@ import dev.alexnader.framed.block.frame.data.FrameData;
 import dev.alexnader.framed.block.frame.data.Sections;
 import dev.alexnader.framed.gui.FrameGuiDescription;
 import dev.alexnader.framed.items.SpecialItems;
+import dev.alexnader.framed.jfr.FrameSyncEvent;
+import dev.alexnader.framed.jfr.FramedEvents;
+import dev.alexnader.framed.mixin.mc.BlockEntityUpdateS2CPacketAccess;
+import dev.alexnader.framed.stats.FrameStats;
 import net.fabricmc.fabric.api.block.entity.BlockEntityClientSerializable;
 import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
 import net.fabricmc.fabric.api.rendering.data.v1.RenderAttachmentBlockEntity;
@@ -19,9 +23,12 @@ import net.minecraft.item.BlockItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
 import net.minecraft.screen.ScreenHandler;
 import net.minecraft.screen.ScreenHandlerContext;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.state.property.BooleanProperty;
 import net.minecraft.text.Text;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Identifier;
@@ -29,16 +36,25 @@ import com.mojang.datafixers.util.Pair;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 
-import java.util.Arrays;
+import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static dev.alexnader.framed.Framed.FRAME_STATS;
 import static dev.alexnader.framed.Framed.SPECIAL_ITEMS;
 import static dev.alexnader.framed.util.GetItemBeforeEmptyUtil.getItemBeforeEmpty;
 import static dev.alexnader.framed.util.ValidQuery.checkIf;
 
 public class FrameBlockEntity extends LockableContainerBlockEntity implements ExtendedScreenHandlerFactory, RenderAttachmentBlockEntity, BlockEntityClientSerializable {
     private FrameData data;
+    private boolean hasRedstone;
+
+    private int batchDepth;
+    private boolean dirtyDuringBatch;
+    private boolean neighborsDirtyDuringBatch;
+    private @Nullable BlockState stateDuringBatch;
 
     public FrameBlockEntity(final BlockEntityType<?> type, final Sections sections) {
         super(type);
@@ -54,25 +70,42 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
         return data.sections();
     }
 
-    public Optional<ItemStack>[] items() {
-        return data.items();
+    /**
+     * Whether this frame holds redstone and so emits power. Kept here instead of on the block state
+     * to avoid doubling the number of frame states.
+     */
+    public boolean hasRedstone() {
+        return hasRedstone;
+    }
+
+    public void setHasRedstone(final boolean hasRedstone) {
+        this.hasRedstone = hasRedstone;
+    }
+
+    public boolean hasStack(final int slot) {
+        return data.hasStack(slot);
     }
 
-    public List<Optional<ItemStack>> baseItems() {
-        return data.baseItems();
+    public ItemStack getBaseItem(final int baseSlot) {
+        return data.getBaseItem(baseSlot);
     }
 
-    public List<Optional<ItemStack>> overlayItems() {
-        return data.overlayItems();
+    public ItemStack getOverlayItem(final int overlaySlot) {
+        return data.getOverlayItem(overlaySlot);
     }
 
     @SuppressWarnings("unused") // kept in case needed in the future
-    public List<Optional<ItemStack>> specialItems() {
-        return data.specialItems();
+    public ItemStack getSpecialItem(final int specialSlot) {
+        return data.getSpecialItem(specialSlot);
+    }
+
+    public @Nullable BlockState getBaseState(final int baseSlot) {
+        return data.getBaseState(baseSlot);
     }
 
-    public Optional<BlockState>[] baseStates() {
-        return data.baseStates();
+    public void setBaseState(final int baseSlot, @Nullable final BlockState baseState) {
+        data.setBaseState(baseSlot, baseState);
+        markDirty();
     }
 
     public void copyFrom(final int slot, final ItemStack stack, final int count, final boolean take) {
@@ -110,13 +143,15 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
     private void beforeRemove(final int slot) {
         switch (sections().findSectionIndexOf(slot)) {
         case Sections.BASE_INDEX:
-            baseStates()[sections().base().makeRelative(slot)] = Optional.empty();
+            data.setBaseState(sections().base().makeRelative(slot), null);
             break;
         case Sections.OVERLAY_INDEX:
             break;
         case Sections.SPECIAL_INDEX:
-            //noinspection ConstantConditions
-            SPECIAL_ITEMS.MAP.get(getItemBeforeEmpty(getStack(slot))).onRemove(world, this);
+            final @Nullable SpecialItems.SpecialItem specialItem = SPECIAL_ITEMS.MAP.get(getItemBeforeEmpty(getStack(slot)));
+            if (specialItem != null && world != null) {
+                specialItem.onRemove(world, this);
+            }
             break;
         default:
             throw new IllegalArgumentException("Invalid slot: " + slot);
@@ -127,47 +162,44 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
     public ItemStack removeStack(final int slot, final int amount) {
         beforeRemove(slot);
 
-        return Optional.of(slot)
-            .filter(s -> sections().itemIndices().contains(s))
-            .filter(s -> amount > 0)
-            .flatMap(s -> items()[s])
-            .map(orig -> new Pair<>(orig, orig.split(amount)))
-            .map(pair -> {
-                markDirty();
-                if (pair.getFirst().isEmpty()) {
-                    items()[slot] = Optional.empty();
-                }
-                return pair.getSecond();
-            })
-            .orElse(ItemStack.EMPTY);
+        if (!sections().itemIndices().contains(slot) || amount <= 0 || !data.hasStack(slot)) {
+            return ItemStack.EMPTY;
+        }
+
+        final ItemStack orig = data.getStack(slot);
+        final ItemStack result = orig.split(amount);
+        if (orig.isEmpty()) {
+            data.setStack(slot, null);
+        }
+        markDirty();
+
+        return result;
     }
 
     @Override
     public ItemStack removeStack(final int slot) {
         beforeRemove(slot);
 
-        markDirty();
+        final ItemStack result = data.takeStack(slot);
 
-        final Optional<ItemStack> result = items()[slot];
-
-        items()[slot] = Optional.empty();
+        markDirty();
 
-        return result.orElse(ItemStack.EMPTY);
+        return result;
     }
 
     @Override
     public ItemStack getStack(final int slot) {
-        return items()[slot].orElse(ItemStack.EMPTY);
+        return data.getStack(slot);
     }
 
     @Override
     public int size() {
-        return items().length;
+        return data.size();
     }
 
     @Override
     public boolean isEmpty() {
-        return Arrays.stream(items()).noneMatch(Optional::isPresent);
+        return data.isEmpty();
     }
 
     @Override
@@ -175,11 +207,26 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
         return true;
     }
 
+    /**
+     * Only empties the slots. Vanilla clears block entities right before replacing them, possibly while the world
+     * being written is not this frame's world, so nothing else may happen here; see {@link #removeAllStacks}.
+     */
     @Override
     public void clear() {
-        for (int i = 0, size = size(); i < size; i++) {
-            items()[i] = Optional.empty();
-        }
+        data.clearStacks();
+    }
+
+    /**
+     * Removes every item as a single {@link #edit}, so that special items are removed from the block state too.
+     */
+    public void removeAllStacks(final Consumer<ItemStack> removed) {
+        edit(frame -> {
+            for (final int slot : sections().itemIndices()) {
+                if (data.hasStack(slot)) {
+                    removed.accept(removeStack(slot));
+                }
+            }
+        });
     }
 
     @Override
@@ -187,7 +234,7 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
         final int sectionIndex = sections().findSectionIndexOf(slot);
 
         final Runnable setStack = () -> {
-            items()[slot] = Optional.of(stack);
+            data.setStack(slot, stack);
             stack.setCount(Math.min(stack.getCount(), getMaxCountPerStack()));
             markDirty();
         };
@@ -196,10 +243,13 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
         case Sections.BASE_INDEX:
             setStack.run();
             final int baseSlot = sections().base().makeRelative(slot);
-            baseStates()[baseSlot] = baseItems().get(baseSlot)
-                .map(ItemStack::getItem)
-                .filter(i -> i instanceof BlockItem)
-                .map(i -> ((BlockItem) i).getBlock().getDefaultState());
+            final ItemStack baseItem = data.getBaseItem(baseSlot);
+            data.setBaseState(
+                baseSlot,
+                !baseItem.isEmpty() && baseItem.getItem() instanceof BlockItem
+                    ? ((BlockItem) baseItem.getItem()).getBlock().getDefaultState()
+                    : null
+            );
             break;
         case Sections.SPECIAL_INDEX:
             final SpecialItems.SpecialItem old = SPECIAL_ITEMS.MAP.get(getItemBeforeEmpty(getStack(slot)));
@@ -220,8 +270,104 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
         }
     }
 
+    /**
+     * Runs a group of changes to this frame and commits them together: however many slots, base states or special
+     * items change, the block state is set once, neighbors are updated once, and the frame is synced and re-rendered
+     * once. Edits may be nested, in which case only the outermost one commits.
+     */
+    public void edit(final Consumer<FrameBlockEntity> changes) {
+        beginBatch();
+        try {
+            changes.accept(this);
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Starts an edit without a callback; see {@link #edit}. Must be followed by a matching {@link #endBatch}.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    public void endBatch() {
+        if (endBatchWithoutSync()) {
+            markDirty();
+        }
+    }
+
+    /**
+     * Ends an edit like {@link #endBatch}, but leaves saving and syncing this frame to the caller, for callers that
+     * sync many frames together with {@link dev.alexnader.framed.network.FrameBatchSync}.
+     * @return whether this frame changed and needs to be saved and synced
+     */
+    public boolean endBatchWithoutSync() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("endBatch called without a matching beginBatch.");
+        }
+
+        batchDepth--;
+        if (batchDepth > 0) {
+            return false;
+        }
+
+        final @Nullable BlockState newState = stateDuringBatch;
+        final boolean neighborsDirty = neighborsDirtyDuringBatch;
+        final boolean dirty = dirtyDuringBatch;
+        stateDuringBatch = null;
+        neighborsDirtyDuringBatch = false;
+        dirtyDuringBatch = false;
+
+        final World world = this.world;
+        // setting the state updates neighbors itself
+        if (world != null && newState != null && newState != world.getBlockState(pos)) {
+            world.setBlockState(pos, newState);
+        } else if (neighborsDirty) {
+            updateNeighbors();
+        }
+        return dirty;
+    }
+
+    /**
+     * Sets a property of this frame's block state, once per edit.
+     */
+    public void setStateProperty(final BooleanProperty property, final boolean value) {
+        final World world = this.world;
+        if (world == null) {
+            return;
+        }
+
+        if (batchDepth > 0) {
+            stateDuringBatch = (stateDuringBatch == null ? world.getBlockState(pos) : stateDuringBatch).with(property, value);
+        } else {
+            world.setBlockState(pos, world.getBlockState(pos).with(property, value));
+        }
+    }
+
+    /**
+     * Notifies neighbors of a change to this frame's redstone power, once per edit.
+     */
+    public void updateNeighbors() {
+        final World world = this.world;
+        if (world == null) {
+            return;
+        }
+
+        if (batchDepth > 0) {
+            neighborsDirtyDuringBatch = true;
+        } else {
+            world.updateNeighborsAlways(pos, world.getBlockState(pos).getBlock());
+        }
+    }
+
     @Override
     public void markDirty() {
+        if (batchDepth > 0) {
+            dirtyDuringBatch = true;
+            return;
+        }
+
         super.markDirty();
 
         final World world = this.world;
@@ -232,9 +378,33 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
             if (world.isClient) {
                 MinecraftClient.getInstance().worldRenderer.updateBlock(world, pos, getCachedState(), state, 1);
             } else {
+                final @Nullable FrameSyncEvent event = FramedEvents.AVAILABLE ? new FrameSyncEvent() : null;
+                if (event != null) {
+                    event.begin();
+                }
+
                 sync();
 
-                PlayerLookup.tracking(this).forEach(p -> p.networkHandler.sendPacket(this.toUpdatePacket()));
+                final Collection<ServerPlayerEntity> players = PlayerLookup.tracking(this);
+                if (!players.isEmpty()) {
+                    final BlockEntityUpdateS2CPacket packet = this.toUpdatePacket();
+                    players.forEach(p -> p.networkHandler.sendPacket(packet));
+
+                    if (FRAME_STATS.measuring()) {
+                        // estimated: sync() sends one more update to each player when the chunk is next flushed
+                        final int packets = 2 * players.size();
+                        FRAME_STATS.recordSync((ServerWorld) world, packets, packets * FrameStats.sizeOf(((BlockEntityUpdateS2CPacketAccess) packet).tag()));
+                    }
+                }
+
+                if (event != null && event.shouldCommit()) {
+                    event.x = pos.getX();
+                    event.y = pos.getY();
+                    event.z = pos.getZ();
+                    event.block = state.toString();
+                    event.players = players.size();
+                    event.commit();
+                }
 
                 world.updateNeighborsAlways(pos.offset(Direction.UP), block);
             }
@@ -267,6 +437,8 @@ public class FrameBlockEntity extends LockableContainerBlockEntity implements Ex
     @Override
     public void fromClientTag(final CompoundTag compoundTag) {
         data = FrameData.fromTag(compoundTag.getCompound("frameData"));
+        // frames saved while redstone was a block state property regain their power here
+        hasRedstone = SPECIAL_ITEMS.containsRedstone(data);
         this.markDirty();
     }
 
@@ -0,0 +1,189 @@
+package dev.alexnader.framed.block.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.item.Item;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkPos;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Tracks the frames loaded in each chunk of each server world, so that they can be found without scanning every
+ * block entity. Kept up to date by block entity load and unload events, which also cover placing and breaking.
+ */
+public class FrameIndex {
+    private final Map<ServerWorld, Long2ObjectMap<Set<FrameBlockEntity>>> worlds = new IdentityHashMap<>();
+
+    private int size = 0;
+
+    public void onLoad(final BlockEntity blockEntity, final ServerWorld world) {
+        if (blockEntity instanceof FrameBlockEntity) {
+            final long chunk = ChunkPos.toLong(blockEntity.getPos().getX() >> 4, blockEntity.getPos().getZ() >> 4);
+            if (worlds.computeIfAbsent(world, w -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(chunk, c -> new ReferenceOpenHashSet<>())
+                .add((FrameBlockEntity) blockEntity)
+            ) {
+                size++;
+            }
+        }
+    }
+
+    public void onUnload(final BlockEntity blockEntity, final ServerWorld world) {
+        if (!(blockEntity instanceof FrameBlockEntity)) {
+            return;
+        }
+
+        final @Nullable Long2ObjectMap<Set<FrameBlockEntity>> chunks = worlds.get(world);
+        if (chunks == null) {
+            return;
+        }
+
+        final long chunk = ChunkPos.toLong(blockEntity.getPos().getX() >> 4, blockEntity.getPos().getZ() >> 4);
+        final @Nullable Set<FrameBlockEntity> frames = chunks.get(chunk);
+        if (frames != null && frames.remove(blockEntity)) {
+            size--;
+            if (frames.isEmpty()) {
+                chunks.remove(chunk);
+            }
+        }
+    }
+
+    public void clear() {
+        worlds.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the number of frames loaded across all worlds
+     */
+    public int size() {
+        return size;
+    }
+
+    public int size(final ServerWorld world) {
+        final @Nullable Long2ObjectMap<Set<FrameBlockEntity>> chunks = worlds.get(world);
+        if (chunks == null) {
+            return 0;
+        }
+
+        int size = 0;
+        for (final Set<FrameBlockEntity> frames : chunks.values()) {
+            size += frames.size();
+        }
+        return size;
+    }
+
+    public int chunkCount(final ServerWorld world) {
+        final @Nullable Long2ObjectMap<Set<FrameBlockEntity>> chunks = worlds.get(world);
+        return chunks == null ? 0 : chunks.size();
+    }
+
+    public void forEach(final ServerWorld world, final Consumer<FrameBlockEntity> action) {
+        final @Nullable Long2ObjectMap<Set<FrameBlockEntity>> chunks = worlds.get(world);
+        if (chunks != null) {
+            for (final Set<FrameBlockEntity> frames : chunks.values()) {
+                frames.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * @return the frames loaded in a chunk; the collection must not be modified or kept
+     */
+    public Collection<FrameBlockEntity> inChunk(final ServerWorld world, final int chunkX, final int chunkZ) {
+        final @Nullable Long2ObjectMap<Set<FrameBlockEntity>> chunks = worlds.get(world);
+        if (chunks == null) {
+            return Collections.emptySet();
+        }
+
+        final @Nullable Set<FrameBlockEntity> frames = chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+        return frames == null ? Collections.emptySet() : frames;
+    }
+
+    /**
+     * Finds the loaded frames in a region that match a filter, such as {@link #withBase} or {@link #withOverlayItem}.
+     */
+    public List<FrameBlockEntity> query(final ServerWorld world, final BlockBox box, final Predicate<FrameBlockEntity> filter) {
+        final List<FrameBlockEntity> result = new ArrayList<>();
+
+        final @Nullable Long2ObjectMap<Set<FrameBlockEntity>> chunks = worlds.get(world);
+        if (chunks == null) {
+            return result;
+        }
+
+        final int minChunkX = box.minX >> 4;
+        final int maxChunkX = box.maxX >> 4;
+        final int minChunkZ = box.minZ >> 4;
+        final int maxChunkZ = box.maxZ >> 4;
+        final long boxChunks = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+
+        if (boxChunks > chunks.size()) {
+            // cheaper to go through the chunks that have frames than every chunk in the region
+            for (final Long2ObjectMap.Entry<Set<FrameBlockEntity>> entry : chunks.long2ObjectEntrySet()) {
+                final long chunk = entry.getLongKey();
+                final int chunkX = ChunkPos.getPackedX(chunk);
+                final int chunkZ = ChunkPos.getPackedZ(chunk);
+                if (minChunkX <= chunkX && chunkX <= maxChunkX && minChunkZ <= chunkZ && chunkZ <= maxChunkZ) {
+                    collect(entry.getValue(), box, filter, result);
+                }
+            }
+        } else {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                    final @Nullable Set<FrameBlockEntity> frames = chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+                    if (frames != null) {
+                        collect(frames, box, filter, result);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static void collect(final Set<FrameBlockEntity> frames, final BlockBox box, final Predicate<FrameBlockEntity> filter, final List<FrameBlockEntity> result) {
+        for (final FrameBlockEntity frame : frames) {
+            if (box.contains(frame.getPos()) && filter.test(frame)) {
+                result.add(frame);
+            }
+        }
+    }
+
+    public static Predicate<FrameBlockEntity> withBase(final Block block) {
+        return frame -> {
+            for (int i = 0, size = frame.sections().base().size(); i < size; i++) {
+                final @Nullable BlockState baseState = frame.getBaseState(i);
+                if (baseState != null && baseState.getBlock() == block) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    public static Predicate<FrameBlockEntity> withOverlayItem(final Item item) {
+        return frame -> {
+            for (int i = 0, size = frame.sections().overlay().size(); i < size; i++) {
+                if (frame.getOverlayItem(i).getItem() == item) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
@@ -58,9 +58,9 @@ public class SlabFrame extends SlabBlock implements FrameSlotInfo, BlockEntityPr
         }
         switch (frame.sections().findSectionIndexOf(slot)) {
         case Sections.BASE_INDEX:
-            return frame.sections().base().makeAbsolute(slot) == wantedSlot;
+            return frame.sections().base().makeRelative(slot) == wantedSlot;
         case Sections.OVERLAY_INDEX:
-            return frame.sections().overlay().makeAbsolute(slot) == wantedSlot;
+            return frame.sections().overlay().makeRelative(slot) == wantedSlot;
         case Sections.SPECIAL_INDEX:
             return true;
         default:
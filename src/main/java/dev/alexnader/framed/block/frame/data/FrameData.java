@@ -1,8 +1,9 @@
 package dev.alexnader.framed.block.frame.data;
 
-import com.google.common.collect.Streams;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Dynamic;
+import dev.alexnader.framed.jfr.FrameDataSerializeEvent;
+import dev.alexnader.framed.jfr.FramedEvents;
 import net.minecraft.block.BlockState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundTag;
@@ -11,102 +12,189 @@ import net.minecraft.nbt.NbtOps;
 import net.minecraft.util.Identifier;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static dev.alexnader.framed.Framed.OVERLAYS;
 
+/**
+ * Slot storage for a frame. Empty slots are stored as {@code null}, and which slots are occupied is tracked
+ * in a bitmask so that emptiness checks and slot searches do not need to touch the arrays.
+ */
 public class FrameData {
-    private static Optional<ItemStack>[] itemsFromTag(final Sections sections, final ListTag tag) {
-        final Optional<ItemStack>[] items = sections.makeItems();
+    private static final int MAX_SLOTS = Long.SIZE;
 
+    // approximate shallow sizes with compressed object pointers
+    private static final long FRAME_DATA_BYTES = 32;
+    private static final long ITEM_STACK_BYTES = 48;
+
+    private static void itemsFromTag(final FrameData data, final ListTag tag) {
         for (int i = 0, size = tag.size(); i < size; i++) {
             final CompoundTag stackTag = tag.getCompound(i);
             final int slot = stackTag.getByte("Slot") & 255;
-            if (sections.containsSlot(slot)) {
-                items[slot] = Optional.of(ItemStack.fromTag(stackTag));
+            if (data.sections.containsSlot(slot)) {
+                data.setStack(slot, ItemStack.fromTag(stackTag));
             }
         }
-
-        return items;
     }
 
-    private static Optional<BlockState>[] baseStatesFromTag(final Sections sections, final ListTag tag) {
-        final Optional<BlockState>[] baseStates = sections.makeBaseStates();
-
+    private static void baseStatesFromTag(final FrameData data, final ListTag tag) {
         for (int i = 0, size = tag.size(); i < size; i++) {
             final CompoundTag stateTag = tag.getCompound(i);
             final int realIndex = stateTag.getInt("i");
-            baseStates[realIndex] = BlockState.CODEC.decode(new Dynamic<>(NbtOps.INSTANCE, stateTag)).result().map(Pair::getFirst);
+            data.baseStates[realIndex] = BlockState.CODEC.decode(new Dynamic<>(NbtOps.INSTANCE, stateTag)).result().map(Pair::getFirst).orElse(null);
         }
-
-        return baseStates;
     }
 
     public static FrameData fromTag(final CompoundTag tag) {
-        final Sections sections = Sections.fromTag(tag.getList("format", 3));
+        final @Nullable FrameDataSerializeEvent event = FramedEvents.AVAILABLE ? new FrameDataSerializeEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
+        final FrameData data = new FrameData(Sections.fromTag(tag.getList("format", 3)));
 
-        return new FrameData(
-            sections,
-            itemsFromTag(sections, tag.getList("Items", 10)),
-            baseStatesFromTag(sections, tag.getList("states", 10))
-        );
+        itemsFromTag(data, tag.getList("Items", 10));
+        baseStatesFromTag(data, tag.getList("states", 10));
+
+        if (event != null && event.shouldCommit()) {
+            event.reading = true;
+            event.slots = data.size();
+            event.occupiedSlots = data.occupiedCount();
+            event.commit();
+        }
+
+        return data;
     }
 
     private final Sections sections;
-    private final Optional<ItemStack>[] items;
-    private final Optional<BlockState>[] baseStates;
+    private final ItemStack[] items;
+    private final BlockState[] baseStates;
+    private long occupiedSlots;
 
-    public FrameData(final Sections sections, final Optional<ItemStack>[] items, final Optional<BlockState>[] baseStates) {
+    public FrameData(@Nonnull final Sections sections) {
         this.sections = sections;
-        this.items = items;
-        this.baseStates = baseStates;
-    }
+        this.items = sections.makeItems();
+        this.baseStates = sections.makeBaseStates();
 
-    public FrameData(@Nonnull final Sections sections) {
-        this(sections, sections.makeItems(), sections.makeBaseStates());
+        if (items.length > MAX_SLOTS) {
+            throw new IllegalArgumentException("Frames can have at most " + MAX_SLOTS + " slots, got " + items.length + ".");
+        }
     }
 
     public Sections sections() {
         return sections;
     }
 
-    public Optional<ItemStack>[] items() {
-        return items;
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return occupiedSlots == 0;
+    }
+
+    public int occupiedCount() {
+        return Long.bitCount(occupiedSlots);
+    }
+
+    /**
+     * @return the highest occupied slot, or -1 if every slot is empty
+     */
+    public int lastOccupiedSlot() {
+        return MAX_SLOTS - 1 - Long.numberOfLeadingZeros(occupiedSlots);
+    }
+
+    public boolean hasStack(final int slot) {
+        return (occupiedSlots & (1L << slot)) != 0;
+    }
+
+    public ItemStack getStack(final int slot) {
+        final @Nullable ItemStack stack = items[slot];
+        return stack == null ? ItemStack.EMPTY : stack;
+    }
+
+    public ItemStack getBaseItem(final int baseSlot) {
+        return getStack(sections.base().makeAbsolute(baseSlot));
+    }
+
+    public ItemStack getOverlayItem(final int overlaySlot) {
+        return getStack(sections.overlay().makeAbsolute(overlaySlot));
+    }
+
+    public ItemStack getSpecialItem(final int specialSlot) {
+        return getStack(sections.special().makeAbsolute(specialSlot));
+    }
+
+    /**
+     * Stores a stack in a slot. Empty stacks clear the slot.
+     */
+    public void setStack(final int slot, @Nullable final ItemStack stack) {
+        if (stack == null || stack.isEmpty()) {
+            items[slot] = null;
+            occupiedSlots &= ~(1L << slot);
+        } else {
+            items[slot] = stack;
+            occupiedSlots |= 1L << slot;
+        }
+    }
+
+    /**
+     * Clears a slot, returning what was in it.
+     */
+    public ItemStack takeStack(final int slot) {
+        final ItemStack stack = getStack(slot);
+        setStack(slot, null);
+        return stack;
     }
 
-    public List<Optional<ItemStack>> baseItems() {
-        return Arrays.asList(items).subList(sections.base().start(), sections.base().end());
+    public void clearStacks() {
+        Arrays.fill(items, null);
+        occupiedSlots = 0;
     }
 
-    public List<Optional<ItemStack>> overlayItems() {
-        return Arrays.asList(items).subList(sections.overlay().start(), sections.overlay().end());
+    public @Nullable BlockState getBaseState(final int baseSlot) {
+        return baseStates[baseSlot];
     }
 
-    public List<Optional<ItemStack>> specialItems() {
-        return Arrays.asList(items).subList(sections.special().start(), sections.special().end());
+    public void setBaseState(final int baseSlot, @Nullable final BlockState baseState) {
+        baseStates[baseSlot] = baseState;
     }
 
-    public Optional<BlockState>[] baseStates() {
-        return baseStates;
+    /**
+     * Roughly estimates the heap used by this frame's data. Block states and items are shared, so only references
+     * to them are counted, and item stack tags are not counted.
+     */
+    public long estimateHeapBytes() {
+        return FRAME_DATA_BYTES
+            + Sections.align(16 + 4L * items.length)
+            + Sections.align(16 + 4L * baseStates.length)
+            + ITEM_STACK_BYTES * occupiedCount()
+            + sections.estimateHeapBytes();
     }
 
     public CompoundTag toTag() {
+        final @Nullable FrameDataSerializeEvent event = FramedEvents.AVAILABLE ? new FrameDataSerializeEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
         final CompoundTag tag = new CompoundTag();
 
         tag.put("format", sections.toTag());
 
         final ListTag itemsTag = new ListTag();
         for (int i = 0, size = items.length; i < size; i++) {
-            final int i2 = i;
-            items[i].ifPresent(stack -> {
+            final @Nullable ItemStack stack = items[i];
+            if (stack != null) {
                 final CompoundTag stackTag = new CompoundTag();
                 stack.toTag(stackTag);
-                stackTag.putByte("Slot", (byte)i2);
+                stackTag.putByte("Slot", (byte) i);
                 itemsTag.add(stackTag);
-            });
+            }
         }
         if (!itemsTag.isEmpty()) {
             tag.put("Items", itemsTag);
@@ -114,29 +202,41 @@ public class FrameData {
 
         final ListTag baseStatesTag = new ListTag();
         for (int i = 0, size = baseStates.length; i < size; i++) {
-            final int i2 = i;
-            baseStates[i].ifPresent(baseState -> {
+            final @Nullable BlockState baseState = baseStates[i];
+            if (baseState != null) {
                 final CompoundTag baseStateTag = new CompoundTag();
-                baseStateTag.putInt("i", i2);
+                baseStateTag.putInt("i", i);
                 //noinspection OptionalGetWithoutIsPresent
                 baseStatesTag.add(
                     BlockState.CODEC.encode(baseState, NbtOps.INSTANCE, baseStateTag).get().left().get()
                 );
-            });
+            }
         }
         if (!baseStatesTag.isEmpty()) {
             tag.put("states", baseStatesTag);
         }
 
+        if (event != null && event.shouldCommit()) {
+            event.reading = false;
+            event.slots = size();
+            event.occupiedSlots = occupiedCount();
+            event.commit();
+        }
+
         return tag;
     }
 
     public List<Pair<Optional<BlockState>, Optional<Identifier>>> toRenderAttachment() {
-        //noinspection UnstableApiUsage
-        return Streams.zip(
-            Arrays.stream(baseStates),
-            overlayItems().stream().map(i -> i.flatMap(OVERLAYS::getOverlayId)),
-            Pair::new
-        ).collect(Collectors.toList());
+        final List<Pair<Optional<BlockState>, Optional<Identifier>>> attachment = new ArrayList<>(baseStates.length);
+
+        for (int i = 0, size = baseStates.length; i < size; i++) {
+            final int overlaySlot = sections.overlay().makeAbsolute(i);
+            attachment.add(Pair.of(
+                Optional.ofNullable(baseStates[i]),
+                hasStack(overlaySlot) ? OVERLAYS.getOverlayId(items[overlaySlot]) : Optional.empty()
+            ));
+        }
+
+        return attachment;
     }
 }
@@ -7,7 +7,6 @@ import net.minecraft.nbt.IntTag;
 import net.minecraft.nbt.ListTag;
 
 import java.util.Arrays;
-import java.util.Optional;
 import java.util.stream.IntStream;
 
 import static dev.alexnader.framed.Framed.SPECIAL_ITEMS;
@@ -76,18 +75,24 @@ public class Sections {
         return -1;
     }
 
-    public Optional<ItemStack>[] makeItems() {
-        //noinspection unchecked
-        final Optional<ItemStack>[] items = new Optional[sections[sections.length - 1].end()];
-        Arrays.fill(items, Optional.empty());
-        return items;
+    public ItemStack[] makeItems() {
+        return new ItemStack[sections[sections.length - 1].end()];
     }
 
-    public Optional<BlockState>[] makeBaseStates() {
-        //noinspection unchecked
-        final Optional<BlockState>[] baseStates = new Optional[base().size()];
-        Arrays.fill(baseStates, Optional.empty());
-        return baseStates;
+    public BlockState[] makeBaseStates() {
+        return new BlockState[base().size()];
+    }
+
+    /**
+     * Roughly estimates the heap used by this object, assuming compressed object pointers.
+     */
+    public long estimateHeapBytes() {
+        // this, the array, and a 24 byte Section per entry
+        return 16 + align(16 + 4L * sections.length) + 24L * sections.length;
+    }
+
+    static long align(final long bytes) {
+        return (bytes + 7) & ~7L;
     }
 
     public ListTag toTag() {
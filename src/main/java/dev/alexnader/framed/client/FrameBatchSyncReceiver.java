@@ -0,0 +1,47 @@
+package dev.alexnader.framed.client;
+
+import com.mojang.datafixers.util.Pair;
+import dev.alexnader.framed.block.entity.FrameBlockEntity;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Environment(EnvType.CLIENT)
+public class FrameBatchSyncReceiver {
+    private FrameBatchSyncReceiver() {
+        throw new IllegalStateException("Should not instantiate utility class.");
+    }
+
+    public static void receive(final MinecraftClient client, final ClientPlayNetworkHandler handler, final PacketByteBuf buf, final PacketSender responseSender) {
+        final List<Pair<BlockPos, CompoundTag>> entries = new ArrayList<>();
+        while (buf.readBoolean()) {
+            entries.add(Pair.of(buf.readBlockPos(), buf.readCompoundTag()));
+        }
+
+        client.execute(() -> {
+            final @Nullable ClientWorld world = client.world;
+            if (world == null) {
+                return;
+            }
+
+            for (final Pair<BlockPos, CompoundTag> entry : entries) {
+                final @Nullable BlockEntity blockEntity = world.getBlockEntity(entry.getFirst());
+                final @Nullable CompoundTag tag = entry.getSecond();
+                if (blockEntity instanceof FrameBlockEntity && tag != null) {
+                    ((FrameBlockEntity) blockEntity).fromClientTag(tag);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package dev.alexnader.framed.client;
+
+import dev.alexnader.framed.util.ShapeInterner;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.alexnader.framed.client.FramedClient.CLIENT_OVERLAYS;
+import static dev.alexnader.framed.client.FramedClient.FRAME_SECTIONS;
+
+/**
+ * Counters for frame rendering, shown on the debug screen. Counters are updated from chunk meshing threads,
+ * and rates are sampled at most once per second while the debug screen is open.
+ * Quads are only timed while the debug screen is open.
+ */
+@Environment(EnvType.CLIENT)
+public class FrameMetrics {
+    private static final long SAMPLE_NANOS = 1_000_000_000L;
+
+    public static class CacheStats {
+        private final String name;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private CacheStats(final String name) {
+            this.name = name;
+        }
+
+        public void hit() {
+            hits.increment();
+        }
+
+        public void miss() {
+            misses.increment();
+        }
+
+        private String debugLine() {
+            final long hits = this.hits.sum();
+            final long total = hits + misses.sum();
+            return total == 0
+                ? String.format("Framed %s cache: unused", name)
+                : String.format("Framed %s cache: %.1f%% hits of %d", name, 100.0 * hits / total, total);
+        }
+    }
+
+    private final LongAdder framesMeshed = new LongAdder();
+    private final LongAdder quadsTransformed = new LongAdder();
+    private final LongAdder transformNanos = new LongAdder();
+    private final LongAdder failedQuads = new LongAdder();
+
+    private final List<CacheStats> caches = new CopyOnWriteArrayList<>();
+
+    private volatile boolean timingQuads = false;
+
+    private long lastSampleTime = System.nanoTime();
+    private long lastFramesMeshed = 0;
+    private long lastQuads = 0;
+    private long lastNanos = 0;
+
+    private double framesMeshedPerSecond = 0;
+    private double nanosPerQuad = 0;
+
+    /**
+     * Creates counters for a cache, which will be listed on the debug screen.
+     */
+    public CacheStats cache(final String name) {
+        final CacheStats stats = new CacheStats(name);
+        caches.add(stats);
+        return stats;
+    }
+
+    public void frameMeshed() {
+        framesMeshed.increment();
+    }
+
+    public void tick(final MinecraftClient client) {
+        timingQuads = client.options.debugEnabled;
+    }
+
+    /**
+     * @return whether quad transforms should be timed and passed to {@link #quadTransformed}
+     */
+    public boolean timingQuads() {
+        return timingQuads;
+    }
+
+    public void quadTransformed(final long nanos) {
+        quadsTransformed.increment();
+        transformNanos.add(nanos);
+    }
+
+    public void quadFailed() {
+        failedQuads.increment();
+    }
+
+    public long failedQuads() {
+        return failedQuads.sum();
+    }
+
+    private void sample() {
+        final long now = System.nanoTime();
+        final long elapsed = now - lastSampleTime;
+        if (elapsed < SAMPLE_NANOS) {
+            return;
+        }
+
+        final long frames = framesMeshed.sum();
+        final long quads = quadsTransformed.sum();
+        final long nanos = transformNanos.sum();
+
+        framesMeshedPerSecond = (frames - lastFramesMeshed) * (double) SAMPLE_NANOS / elapsed;
+        nanosPerQuad = quads == lastQuads ? 0 : (double) (nanos - lastNanos) / (quads - lastQuads);
+
+        lastSampleTime = now;
+        lastFramesMeshed = frames;
+        lastQuads = quads;
+        lastNanos = nanos;
+    }
+
+    public List<String> debugLines() {
+        sample();
+
+        final List<String> lines = new ArrayList<>(4 + caches.size());
+        lines.add(String.format("Framed: %.0f frames meshed/s, %.0f ns/quad", framesMeshedPerSecond, nanosPerQuad));
+        lines.add(String.format("Framed: %d failed quads", failedQuads.sum()));
+        lines.add(String.format("Framed: %d overlays, %d frames in %d sections", CLIENT_OVERLAYS.size(), FRAME_SECTIONS.frameCount(), FRAME_SECTIONS.sectionCount()));
+        lines.add(String.format("Framed: %d interned shapes", ShapeInterner.size()));
+        for (final CacheStats cache : caches) {
+            lines.add(cache.debugLine());
+        }
+        return lines;
+    }
+}
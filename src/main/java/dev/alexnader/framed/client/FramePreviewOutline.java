@@ -46,7 +46,6 @@ import net.minecraft.client.render.Camera;
 import net.minecraft.client.render.OverlayTexture;
 import net.minecraft.client.render.TexturedRenderLayers;
 import net.minecraft.client.render.VertexConsumer;
-import net.minecraft.client.render.VertexFormats;
 import net.minecraft.client.render.model.BakedModel;
 import net.minecraft.client.render.model.BakedQuad;
 import net.minecraft.client.util.math.MatrixStack;
@@ -61,21 +60,37 @@ import net.minecraft.util.Hand;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Matrix3f;
 import net.minecraft.util.math.Matrix4f;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.Vec3i;
-import org.lwjgl.system.MemoryStack;
 
-import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static dev.alexnader.framed.Framed.BLOCKS;
+import static dev.alexnader.framed.client.FramedClient.METRICS;
 
 @Environment(EnvType.CLIENT)
 public class FramePreviewOutline {
     public static boolean enabled = true;
 
-    @SuppressWarnings("java:S3776")
+    private static final int FULL_BRIGHT = 0x00F000F0;
+
+    private static final Map<BlockState, Geometry> geometryCache = new HashMap<>();
+    private static final FrameMetrics.CacheStats geometryCacheStats = METRICS.cache("preview geometry");
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Placement placement = new Placement();
+
+    // only used on the render thread, reused for every vertex
+    private static final Vector4f position = new Vector4f();
+    private static final Vector3f normal = new Vector3f();
+
     public static void renderPreviewOutline(final WorldRenderContext context) {
         if (!enabled) {
             return;
@@ -103,123 +118,223 @@ public class FramePreviewOutline {
         }
 
         final BlockHitResult hitResult = (BlockHitResult) client.crosshairTarget;
-        final ItemPlacementContext placementContext = new ItemPlacementContext(player, Hand.MAIN_HAND, stack, hitResult);
-        final BlockState blockState = ((BlockItemAccess) player.getStackInHand(Hand.MAIN_HAND).getItem()).getPlacementStateProxy(placementContext);
 
+        if (!placement.matches(client.world, player, stack, hitResult)) {
+            placement.update(client.world, player, stack, hitResult);
+        }
+
+        final @Nullable BlockState blockState = placement.blockState;
         if (blockState == null) {
             return;
         }
 
-        final BlockPos pos = placementContext.getBlockPos();
-        final BakedModel model = client.getBlockRenderManager().getModel(blockState);
-        final boolean valid;
+        final @Nullable BlockState upState = placement.upState;
+        if (upState != null) {
+            renderPreview(context, client, client.world, upState, placement.upPos, placement.valid);
+        }
 
-        if (block == BLOCKS.DOOR_FRAME) {
-            final BlockPos upPos = pos.up();
-            final BlockState upState = blockState.with(Properties.DOUBLE_BLOCK_HALF, DoubleBlockHalf.UPPER);
-            final BakedModel upModel = client.getBlockRenderManager().getModel(upState);
+        renderPreview(context, client, client.world, blockState, placement.pos, placement.valid);
+    }
 
-            final boolean upValid = new ItemPlacementContext(player, Hand.MAIN_HAND, stack, hitResult.withBlockPos(upPos)).canReplaceExisting() || client.world.getBlockState(upPos).isAir();
-            final boolean downValid = blockState.canPlaceAt(client.world, pos) && (placementContext.canPlace() || client.world.getBlockState(pos).isAir());
-            if (!upValid) {
-                valid = false;
-            } else {
-                valid = downValid;
-            }
+    private static Geometry getGeometry(final MinecraftClient client, final ClientWorld world, final BlockState blockState) {
+        final BakedModel model = client.getBlockRenderManager().getModel(blockState);
 
-            renderPreview(context, client.world, upState, upPos, upModel, upValid && downValid);
+        Geometry geometry = geometryCache.get(blockState);
+        // models are replaced on resource reload, so a stale entry will have a different model
+        if (geometry == null || geometry.model != model) {
+            geometryCacheStats.miss();
+            geometry = new Geometry(blockState, model, world.random);
+            geometryCache.put(blockState, geometry);
         } else {
-            valid = blockState.canPlaceAt(client.world, pos) && (placementContext.canPlace() || client.world.getBlockState(pos).isAir());
+            geometryCacheStats.hit();
         }
 
-        renderPreview(context, client.world, blockState, pos, model, valid);
+        return geometry;
     }
 
-    private static void renderPreview(final WorldRenderContext context, final ClientWorld world, final BlockState blockState, final BlockPos pos, final BakedModel model, final boolean valid) {
+    private static void renderPreview(final WorldRenderContext context, final MinecraftClient client, final ClientWorld world, final BlockState blockState, final BlockPos pos, final boolean valid) {
+        final Geometry geometry = getGeometry(client, world, blockState);
+        if (geometry.vertices.length == 0) {
+            return;
+        }
+
         final MatrixStack matrixStack = context.matrixStack();
         final Camera camera = context.camera();
         final int ticks = ((WorldRendererAccess) context.worldRenderer()).ticks();
         final float tickDelta = context.tickDelta();
 
-        for (int directionId  = 0; directionId <= 6; directionId++) {
-            final List<BakedQuad> quads = model.getQuads(blockState, ModelHelper.faceFromIndex(directionId), world.random);
+        matrixStack.push();
+        matrixStack.translate(-camera.getPos().x, -camera.getPos().y, -camera.getPos().z);
+        matrixStack.translate(pos.getX(), pos.getY(), pos.getZ());
 
-            matrixStack.push();
-            matrixStack.translate(-camera.getPos().x, -camera.getPos().y, -camera.getPos().z);
-            matrixStack.translate(pos.getX(), pos.getY(), pos.getZ());
+        final float scale = 1F - (1F / 60) + ((float) Math.sin((ticks + tickDelta) / 4.5F) / 60);
+        matrixStack.translate(-0.5 * scale, -0.5 * scale, -0.5 * scale);
+        matrixStack.scale(scale, scale, scale);
+        matrixStack.translate(0.5 / scale, 0.5 / scale, 0.5 / scale);
 
-            if (blockState.contains(Properties.HORIZONTAL_FACING)) {
-                matrixStack.translate(0.5, 0.5, 0.5);
+        final float r = valid ? 0 : 1;
+        final float g = valid ? 1 : 0;
+        final float b = valid ? 64 / 255F : 0;
+        final float a = valid ? 191 / 255F : 63 / 255F;
 
-                matrixStack.translate(-0.5, -0.5, -0.5);
-            }
+        //noinspection ConstantConditions // this method should be registered to AFTER_ENTITIES, which will have a non-null consumer
+        final VertexConsumer faces = context.consumers().getBuffer(TexturedRenderLayers.getItemEntityTranslucentCull());
+        render(geometry.vertices, matrixStack.peek(), faces, r, g, b, a);
+
+        matrixStack.pop();
+    }
+
+    private static void render(final float[] vertices, final MatrixStack.Entry entry, final VertexConsumer consumer, final float r, final float g, final float b, final float a) {
+        final Matrix4f model = entry.getModel();
+        final Matrix3f normalMatrix = entry.getNormal();
+
+        for (int i = 0; i < vertices.length; i += Geometry.STRIDE) {
+            position.set(vertices[i], vertices[i + 1], vertices[i + 2], 1.0F);
+            position.transform(model);
+            normal.set(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+            normal.transform(normalMatrix);
+
+            consumer.vertex(
+                position.getX(), position.getY(), position.getZ(),
+                r, g, b, a,
+                vertices[i + 3], vertices[i + 4],
+                OverlayTexture.DEFAULT_UV, FULL_BRIGHT,
+                normal.getX(), normal.getY(), normal.getZ()
+            );
+        }
+    }
 
-            final float scale = 1F - (1F / 60) + ((float) Math.sin((ticks + tickDelta) / 4.5F) / 60);
-            matrixStack.translate(-0.5 * scale, -0.5 * scale, -0.5 * scale);
-            matrixStack.scale(scale, scale, scale);
-            matrixStack.translate(0.5 / scale, 0.5 / scale, 0.5 / scale);
+    /**
+     * The quads of a placement state's model, flattened into x, y, z, u, v, nx, ny, nz per vertex.
+     */
+    private static class Geometry {
+        private static final int STRIDE = 8;
+        private static final int QUAD_STRIDE = 8;
 
-            final int c = 0;
-            final int r = valid ? c : 255;
-            final int g = valid ? 255 : c;
-            final int b = valid ? 64 : 0;
-            final int a = valid ? 191 : 63;
+        private final BakedModel model;
+        private final float[] vertices;
 
-            final MatrixStack.Entry entry = matrixStack.peek();
+        private Geometry(final BlockState blockState, final BakedModel model, final Random random) {
+            this.model = model;
 
-            //noinspection ConstantConditions // this method should be registered to AFTER_ENTITIES, which will have a non-null consumer
-            final VertexConsumer faces = context.consumers().getBuffer(TexturedRenderLayers.getItemEntityTranslucentCull());
+            final List<BakedQuad> quads = new ArrayList<>();
+            for (int directionId = 0; directionId <= 6; directionId++) {
+                quads.addAll(model.getQuads(blockState, ModelHelper.faceFromIndex(directionId), random));
+            }
+
+            int vertexCount = 0;
+            for (final BakedQuad quad : quads) {
+                vertexCount += quad.getVertexData().length / QUAD_STRIDE;
+            }
+
+            vertices = new float[vertexCount * STRIDE];
+
+            int i = 0;
             for (final BakedQuad quad : quads) {
-                render(quad, entry, faces, r, g, b, a);
+                final int[] data = quad.getVertexData();
+                final Vec3i face = quad.getFace().getVector();
+
+                for (int k = 0; k < data.length; k += QUAD_STRIDE) {
+                    vertices[i++] = Float.intBitsToFloat(data[k]);
+                    vertices[i++] = Float.intBitsToFloat(data[k + 1]);
+                    vertices[i++] = Float.intBitsToFloat(data[k + 2]);
+                    vertices[i++] = Float.intBitsToFloat(data[k + 4]);
+                    vertices[i++] = Float.intBitsToFloat(data[k + 5]);
+                    vertices[i++] = face.getX();
+                    vertices[i++] = face.getY();
+                    vertices[i++] = face.getZ();
+                }
             }
-            matrixStack.pop();
         }
     }
 
-    @SuppressWarnings({"SameParameterValue", "java:S1181"})
-    private static void render(final BakedQuad quad, final MatrixStack.Entry entry, final VertexConsumer consumer, final float r, final float g, final float b, final float a) {
-        final int[] is = quad.getVertexData();
-        final Vec3i vec3i = quad.getFace().getVector();
-        final Vector3f vector3f = new Vector3f((float)vec3i.getX(), (float)vec3i.getY(), (float)vec3i.getZ());
-        final Matrix4f matrix4f = entry.getModel();
-        vector3f.transform(entry.getNormal());
-
-        final int j = is.length / 8;
-        final MemoryStack memoryStack = MemoryStack.stackPush();
-        Throwable var17 = null;
-
-        try {
-            final ByteBuffer byteBuffer = memoryStack.malloc(VertexFormats.POSITION_COLOR_TEXTURE_LIGHT_NORMAL.getVertexSize());
-            final IntBuffer intBuffer = byteBuffer.asIntBuffer();
-
-            for(int k = 0; k < j; ++k) {
-                intBuffer.clear();
-                intBuffer.put(is, k * 8, 8);
-                final float x = byteBuffer.getFloat(0);
-                final float y = byteBuffer.getFloat(4);
-                final float z = byteBuffer.getFloat(8);
-                final float v;
-                final float w;
-
-                final int u = 0x00F000F0;
-                v = byteBuffer.getFloat(16);
-                w = byteBuffer.getFloat(20);
-                final Vector4f vector4f = new Vector4f(x, y, z, 1.0F);
-                vector4f.transform(matrix4f);
-                consumer.vertex(vector4f.getX(), vector4f.getY(), vector4f.getZ(), r/255F, g/255F, b/255F, a/255F, v, w, OverlayTexture.DEFAULT_UV, u, vector3f.getX(), vector3f.getY(), vector3f.getZ());
+    /**
+     * The last computed placement, along with everything it was computed from.
+     */
+    private static class Placement {
+        private @Nullable ClientWorld world;
+        private ItemStack stack = ItemStack.EMPTY;
+        private @Nullable Direction facing;
+        private @Nullable Vec3d hitPos;
+        private @Nullable BlockPos hitBlockPos;
+        private @Nullable Direction side;
+        private boolean insideBlock;
+        private @Nullable BlockState hitBlockWorldState;
+        private @Nullable BlockState posWorldState;
+        private @Nullable BlockState upPosWorldState;
+        // placement states and canPlaceAt look at neighbors, e.g. fences connecting or torches needing support
+        private final BlockState[] neighborWorldStates = new BlockState[DIRECTIONS.length];
+        private final BlockState[] upNeighborWorldStates = new BlockState[DIRECTIONS.length];
+
+        private @Nullable BlockState blockState;
+        private BlockPos pos = BlockPos.ORIGIN;
+        private @Nullable BlockState upState;
+        private BlockPos upPos = BlockPos.ORIGIN;
+        private boolean valid;
+
+        private static void getNeighborStates(final ClientWorld world, final BlockPos pos, final BlockState[] states) {
+            for (final Direction dir : DIRECTIONS) {
+                states[dir.ordinal()] = world.getBlockState(pos.offset(dir));
             }
-        } catch (final Throwable var38) {
-            var17 = var38;
-            throw var38;
-        } finally {
-            if (var17 != null) {
-                try {
-                    memoryStack.close();
-                } catch (final Throwable var37) {
-                    var17.addSuppressed(var37);
+        }
+
+        private static boolean neighborStatesMatch(final ClientWorld world, final BlockPos pos, final BlockState[] states) {
+            for (final Direction dir : DIRECTIONS) {
+                if (world.getBlockState(pos.offset(dir)) != states[dir.ordinal()]) {
+                    return false;
                 }
-            } else {
-                memoryStack.close();
+            }
+            return true;
+        }
+
+        private boolean matches(final ClientWorld world, final ClientPlayerEntity player, final ItemStack stack, final BlockHitResult hitResult) {
+            //noinspection ConstantConditions // all fields are non-null once world is
+            return this.world == world
+                && ItemStack.areEqual(this.stack, stack)
+                && facing == player.getHorizontalFacing()
+                && side == hitResult.getSide()
+                && insideBlock == hitResult.isInsideBlock()
+                && hitBlockPos.equals(hitResult.getBlockPos())
+                && hitPos.equals(hitResult.getPos())
+                && world.getBlockState(hitBlockPos) == hitBlockWorldState
+                && world.getBlockState(pos) == posWorldState
+                && (upState == null || world.getBlockState(upPos) == upPosWorldState)
+                && neighborStatesMatch(world, pos, neighborWorldStates)
+                && (upState == null || neighborStatesMatch(world, upPos, upNeighborWorldStates));
+        }
+
+        private void update(final ClientWorld world, final ClientPlayerEntity player, final ItemStack stack, final BlockHitResult hitResult) {
+            this.world = world;
+            this.stack = stack.copy();
+            facing = player.getHorizontalFacing();
+            hitPos = hitResult.getPos();
+            hitBlockPos = hitResult.getBlockPos();
+            side = hitResult.getSide();
+            insideBlock = hitResult.isInsideBlock();
+            hitBlockWorldState = world.getBlockState(hitBlockPos);
+
+            final ItemPlacementContext placementContext = new ItemPlacementContext(player, Hand.MAIN_HAND, stack, hitResult);
+            blockState = ((BlockItemAccess) stack.getItem()).getPlacementStateProxy(placementContext);
+            pos = placementContext.getBlockPos();
+            posWorldState = world.getBlockState(pos);
+            getNeighborStates(world, pos, neighborWorldStates);
+            upState = null;
+
+            if (blockState == null) {
+                valid = false;
+                return;
+            }
+
+            valid = blockState.canPlaceAt(world, pos) && (placementContext.canPlace() || posWorldState.isAir());
+
+            if (blockState.getBlock() == BLOCKS.DOOR_FRAME) {
+                upPos = pos.up();
+                upState = blockState.with(Properties.DOUBLE_BLOCK_HALF, DoubleBlockHalf.UPPER);
+                upPosWorldState = world.getBlockState(upPos);
+                getNeighborStates(world, upPos, upNeighborWorldStates);
+
+                final boolean upValid = new ItemPlacementContext(player, Hand.MAIN_HAND, stack, hitResult.withBlockPos(upPos)).canReplaceExisting() || upPosWorldState.isAir();
+                valid = valid && upValid;
             }
         }
     }
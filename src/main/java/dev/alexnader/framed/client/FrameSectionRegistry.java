@@ -0,0 +1,147 @@
+package dev.alexnader.framed.client;
+
+import dev.alexnader.framed.block.entity.FrameBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static dev.alexnader.framed.Framed.OVERLAYS;
+
+/**
+ * Tracks which chunk sections of the client world contain frames, so that frames can be re-meshed
+ * without rebuilding every loaded chunk.
+ */
+@Environment(EnvType.CLIENT)
+public class FrameSectionRegistry {
+    private final Long2ObjectMap<Set<FrameBlockEntity>> sections = new Long2ObjectOpenHashMap<>();
+    private @Nullable ClientWorld world;
+
+    private static long sectionOf(final BlockPos pos) {
+        return ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+    }
+
+    public void onLoad(final BlockEntity blockEntity, final ClientWorld world) {
+        if (!(blockEntity instanceof FrameBlockEntity)) {
+            return;
+        }
+
+        if (this.world != world) {
+            sections.clear();
+            this.world = world;
+        }
+
+        sections.computeIfAbsent(sectionOf(blockEntity.getPos()), s -> new ReferenceOpenHashSet<>()).add((FrameBlockEntity) blockEntity);
+    }
+
+    public void onUnload(final BlockEntity blockEntity, final ClientWorld world) {
+        if (!(blockEntity instanceof FrameBlockEntity) || this.world != world) {
+            return;
+        }
+
+        final long section = sectionOf(blockEntity.getPos());
+        final @Nullable Set<FrameBlockEntity> frames = sections.get(section);
+        if (frames != null && frames.remove(blockEntity) && frames.isEmpty()) {
+            sections.remove(section);
+        }
+    }
+
+    public int sectionCount() {
+        return sections.size();
+    }
+
+    public int frameCount() {
+        int count = 0;
+        for (final Set<FrameBlockEntity> frames : sections.values()) {
+            count += frames.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return every distinct base state used by a loaded frame
+     */
+    public Set<BlockState> baseStates() {
+        final Set<BlockState> states = new ReferenceOpenHashSet<>();
+        for (final Set<FrameBlockEntity> frames : sections.values()) {
+            for (final FrameBlockEntity frame : frames) {
+                for (int i = 0, size = frame.sections().base().size(); i < size; i++) {
+                    final @Nullable BlockState baseState = frame.getBaseState(i);
+                    if (baseState != null) {
+                        states.add(baseState);
+                    }
+                }
+            }
+        }
+        return states;
+    }
+
+    private static boolean usesOverlay(final FrameBlockEntity frame, final Predicate<Identifier> overlayIds) {
+        for (int i = 0, size = frame.sections().overlay().size(); i < size; i++) {
+            final ItemStack overlayItem = frame.getOverlayItem(i);
+            if (!overlayItem.isEmpty()) {
+                final Optional<Identifier> overlayId = OVERLAYS.getOverlayId(overlayItem);
+                if (overlayId.isPresent() && overlayIds.test(overlayId.get())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Schedules a rebuild of each section containing a frame that uses one of the given overlays.
+     * Must be called on the render thread.
+     * @return the number of sections scheduled
+     */
+    public int rebuildUsing(final Predicate<Identifier> overlayIds) {
+        final MinecraftClient client = MinecraftClient.getInstance();
+        if (world == null || client.world != world) {
+            return 0;
+        }
+
+        final WorldRenderer worldRenderer = client.worldRenderer;
+
+        int scheduled = 0;
+        for (final Long2ObjectMap.Entry<Set<FrameBlockEntity>> entry : sections.long2ObjectEntrySet()) {
+            for (final FrameBlockEntity frame : entry.getValue()) {
+                if (usesOverlay(frame, overlayIds)) {
+                    final long section = entry.getLongKey();
+                    worldRenderer.scheduleBlockRenders(
+                        ChunkSectionPos.unpackX(section),
+                        ChunkSectionPos.unpackY(section),
+                        ChunkSectionPos.unpackZ(section)
+                    );
+                    scheduled++;
+                    break;
+                }
+            }
+        }
+
+        return scheduled;
+    }
+
+    /**
+     * Schedules {@link #rebuildUsing} on the client thread for the given overlays. May be called from any thread.
+     */
+    public void rebuildLater(final Set<Identifier> overlayIds) {
+        if (!overlayIds.isEmpty()) {
+            MinecraftClient.getInstance().execute(() -> rebuildUsing(overlayIds::contains));
+        }
+    }
+}
@@ -5,28 +5,35 @@ import dev.alexnader.framed.client.assets.OverlayAssetListener;
 import dev.alexnader.framed.client.assets.overlay.OffsetterRegistry;
 import dev.alexnader.framed.client.assets.overlay.ZeroOffsetter;
 import dev.alexnader.framed.client.gui.FrameScreen;
+import dev.alexnader.framed.client.transform.BaseApplierCache;
+import dev.alexnader.framed.client.transform.CacheWarmer;
 import dev.alexnader.framed.client.transform.FrameTransform;
+import dev.alexnader.framed.client.transform.MaterialCache;
+import dev.alexnader.framed.client.transform.TransformFailureReporter;
 import dev.alexnader.framed.items.FramersHammer;
+import dev.alexnader.framed.network.FrameBatchSync;
 import grondag.jmx.api.QuadTransformRegistry;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientBlockEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.model.ModelLoadingRegistry;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.fabricmc.fabric.api.client.screenhandler.v1.ScreenRegistry;
 import net.fabricmc.fabric.api.event.client.ClientSpriteRegistryCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.object.builder.v1.client.model.FabricModelPredicateProviderRegistry;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.texture.SpriteAtlasTexture;
-import net.minecraft.client.util.ModelIdentifier;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
 
-import java.util.Optional;
-
 import static dev.alexnader.framed.Framed.ITEMS;
 import static dev.alexnader.framed.Framed.META;
+import static dev.alexnader.framed.Framed.OVERLAYS;
 
 @Environment(EnvType.CLIENT)
 public class FramedClient implements ClientModInitializer {
@@ -34,6 +41,16 @@ public class FramedClient implements ClientModInitializer {
 
     public static OverlayAssetListener CLIENT_OVERLAYS;
 
+    public static FramersHammerModels HAMMER_MODELS;
+
+    public static FrameSectionRegistry FRAME_SECTIONS;
+
+    public static FrameMetrics METRICS;
+    public static TransformFailureReporter TRANSFORM_FAILURES;
+
+    public static MaterialCache MATERIALS;
+    public static BaseApplierCache BASE_APPLIERS;
+
     @Override
     public void onInitializeClient() {
         final Identifier zeroId = META.id("zero");
@@ -41,6 +58,11 @@ public class FramedClient implements ClientModInitializer {
 
         FramedClient.CODECS = new FramedCodecs();
 
+        METRICS = new FrameMetrics();
+        TRANSFORM_FAILURES = new TransformFailureReporter();
+        ClientTickEvents.END_CLIENT_TICK.register(METRICS::tick);
+        ClientTickEvents.END_CLIENT_TICK.register(TRANSFORM_FAILURES::tick);
+
         QuadTransformRegistry.INSTANCE.register(
             META.id("frame_transform"),
             FrameTransform.SOURCE
@@ -58,24 +80,41 @@ public class FramedClient implements ClientModInitializer {
             }
         });
 
+        FRAME_SECTIONS = new FrameSectionRegistry();
+        ClientBlockEntityEvents.BLOCK_ENTITY_LOAD.register(FRAME_SECTIONS::onLoad);
+        ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register(FRAME_SECTIONS::onUnload);
+
         CLIENT_OVERLAYS = new OverlayAssetListener();
         ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(CLIENT_OVERLAYS);
+        // changed triggers only reach this client when it hosts the server, e.g. after /reload in singleplayer
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resources, success) -> {
+            if (success) {
+                FRAME_SECTIONS.rebuildLater(OVERLAYS.lastChanged());
+            }
+        });
+
+        MATERIALS = new MaterialCache();
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(MATERIALS);
+
+        BASE_APPLIERS = new BaseApplierCache();
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(BASE_APPLIERS);
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new CacheWarmer());
+
+        HAMMER_MODELS = new FramersHammerModels();
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(HAMMER_MODELS);
 
         ModelLoadingRegistry.INSTANCE.registerModelProvider(
-            (resourceManager, out) -> out.accept(new ModelIdentifier(META.id("framers_hammer_none"), "inventory"))
+            (resourceManager, out) -> out.accept(HAMMER_MODELS.HAMMER_NONE_ID)
         );
 
         FabricModelPredicateProviderRegistry.register(
             ITEMS.FRAMERS_HAMMER,
             META.id("hammer_mode"),
-            (stack, world, entity) ->
-                Optional.ofNullable(stack.getTag())
-                    .map(t -> t.getString("mode"))
-                    .flatMap(FramersHammer.CopyMode::fromString)
-                    .orElse(FramersHammer.CopyMode.DEFAULT)
-                    .id
+            (stack, world, entity) -> FramersHammer.CopyMode.fromTag(stack.getTag()).id
         );
 
         WorldRenderEvents.AFTER_ENTITIES.register(FramePreviewOutline::renderPreviewOutline);
+
+        ClientPlayNetworking.registerGlobalReceiver(FrameBatchSync.ID, FrameBatchSyncReceiver::receive);
     }
 }
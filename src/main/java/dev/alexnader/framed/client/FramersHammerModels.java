@@ -0,0 +1,61 @@
+package dev.alexnader.framed.client;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.resource.ResourceReloadListenerKeys;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.model.BakedModel;
+import net.minecraft.client.render.model.BakedModelManager;
+import net.minecraft.client.util.ModelIdentifier;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+
+import static dev.alexnader.framed.Framed.META;
+
+@Environment(EnvType.CLIENT)
+public class FramersHammerModels implements SimpleSynchronousResourceReloadListener {
+    public final ModelIdentifier HAMMER_ID = new ModelIdentifier(META.id("framers_hammer"), "inventory");
+    public final ModelIdentifier HAMMER_NONE_ID = new ModelIdentifier(META.id("framers_hammer_none"), "inventory");
+
+    private @Nullable BakedModel hammer;
+    private @Nullable BakedModel hammerNone;
+
+    public BakedModel hammer(final BakedModelManager modelManager) {
+        if (hammer == null) {
+            hammer = modelManager.getModel(HAMMER_ID);
+        }
+        return hammer;
+    }
+
+    public BakedModel hammerNone(final BakedModelManager modelManager) {
+        if (hammerNone == null) {
+            hammerNone = modelManager.getModel(HAMMER_NONE_ID);
+        }
+        return hammerNone;
+    }
+
+    @Override
+    public void apply(final ResourceManager manager) {
+        final BakedModelManager modelManager = MinecraftClient.getInstance().getBakedModelManager();
+
+        hammer = modelManager.getModel(HAMMER_ID);
+        hammerNone = modelManager.getModel(HAMMER_NONE_ID);
+    }
+
+    private final Identifier id = META.id("assets/framers_hammer_models");
+
+    @Override
+    public Identifier getFabricId() {
+        return id;
+    }
+
+    @Override
+    public Collection<Identifier> getFabricDependencies() {
+        return Collections.singletonList(ResourceReloadListenerKeys.MODELS);
+    }
+}
@@ -1,40 +1,79 @@
 package dev.alexnader.framed.client.assets;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.JsonOps;
 import dev.alexnader.framed.client.assets.overlay.Overlay;
+import dev.alexnader.framed.client.assets.overlay.OverlayCache;
+import dev.alexnader.framed.jfr.FramedEvents;
+import dev.alexnader.framed.jfr.OverlayReloadEvent;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.resource.ResourceReloadListenerKeys;
 import net.fabricmc.fabric.api.resource.SimpleResourceReloadListener;
+import net.minecraft.resource.Resource;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.Unit;
+import net.minecraft.util.Util;
 import net.minecraft.util.profiler.Profiler;
 
-import java.io.BufferedReader;
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 import static dev.alexnader.framed.Framed.META;
+import static dev.alexnader.framed.client.FramedClient.FRAME_SECTIONS;
 
 @Environment(EnvType.CLIENT)
 public class OverlayAssetListener implements SimpleResourceReloadListener<Collection<Identifier>> {
-    private final Map<Identifier, Overlay.Some> overlayInfoMap = new HashMap<>();
+    // replaced once a reload is done, so meshing threads never see a partial set
+    private volatile Map<Identifier, Overlay.Some> overlayInfoMap = Collections.emptyMap();
+    private Map<Identifier, Overlay.Some> loading = new HashMap<>();
+    private volatile Set<Identifier> lastChanged = Collections.emptySet();
+    // hashes of each overlay's file
+    private final Map<Identifier, HashCode> sources = new HashMap<>();
+    private Map<Identifier, HashCode> previousSources = Collections.emptyMap();
+    private final OverlayCache cache = new OverlayCache();
 
     public Overlay getOverlayFor(final Identifier id) {
         return Overlay.ofNullable(overlayInfoMap.get(id));
     }
 
+    public int size() {
+        return overlayInfoMap.size();
+    }
+
+    /**
+     * @return the ids of the overlays that were added, removed or modified by the last reload, including overlays
+     * inheriting from them
+     */
+    public Set<Identifier> lastChanged() {
+        return lastChanged;
+    }
+
+    private @Nullable OverlayReloadEvent reloadEvent;
+
     @Override
     public CompletableFuture<Collection<Identifier>> load(final ResourceManager resourceManager, final Profiler profiler, final Executor executor) {
+        if (FramedEvents.AVAILABLE) {
+            final OverlayReloadEvent event = new OverlayReloadEvent();
+            event.begin();
+            reloadEvent = event;
+        }
+
         return CompletableFuture.supplyAsync(() -> {
-            overlayInfoMap.clear();
+            loading = new HashMap<>();
+            previousSources = new HashMap<>(sources);
+            sources.clear();
+            cache.load();
 
             return resourceManager.findResources("framed/overlays", s -> s.endsWith(".json"));
         }, executor);
@@ -43,7 +82,7 @@ public class OverlayAssetListener implements SimpleResourceReloadListener<Collec
     private DataResult<Unit> parseOverlayAndDependencies(final ResourceManager resourceManager, final Identifier rootOverlayId) {
         final Set<Identifier> loadedDependencies = new HashSet<>();
 
-        if (!overlayInfoMap.containsKey(rootOverlayId)) {
+        if (!loading.containsKey(rootOverlayId)) {
             return parseOverlay(resourceManager, loadedDependencies, rootOverlayId);
         } else {
             return DataResult.success(Unit.INSTANCE);
@@ -51,32 +90,45 @@ public class OverlayAssetListener implements SimpleResourceReloadListener<Collec
     }
 
     private DataResult<Unit> parseOverlay(final ResourceManager resourceManager, final Set<Identifier> loadedDependencies, final Identifier overlayId) {
-        final JsonElement element;
-        try {
-            element = new Gson().fromJson(new BufferedReader(new InputStreamReader(resourceManager.getResource(overlayId).getInputStream())), JsonElement.class);
+        final byte[] bytes;
+        try (Resource resource = resourceManager.getResource(overlayId)) {
+            bytes = ByteStreams.toByteArray(resource.getInputStream());
         } catch (final IOException e) {
-            return DataResult.error("Exception while loading an overlay: " );
+            return DataResult.error("Exception while loading an overlay: " + e.getMessage());
+        }
+
+        final HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+        sources.put(overlayId, hash);
+
+        final @Nullable Overlay.Some cached = cache.get(overlayId, hash);
+        final DataResult<Overlay.Some> result;
+        if (cached != null) {
+            result = parseParent(resourceManager, loadedDependencies, overlayId, cached.parent().id()).map(unit -> cached);
+        } else {
+            final JsonElement element = new Gson().fromJson(new String(bytes, StandardCharsets.UTF_8), JsonElement.class);
+
+            result = Overlay.Some.PARENT_CODEC.parse(JsonOps.INSTANCE, element)
+                .flatMap(parentId -> parseParent(resourceManager, loadedDependencies, overlayId, parentId))
+                .flatMap(unit -> Overlay.Some.CODEC.parse(JsonOps.INSTANCE, element));
+
+            result.result().ifPresent(overlay -> cache.put(overlayId, hash, overlay));
         }
 
-        final DataResult<Pair<Overlay.Some, JsonElement>> result = Overlay.Some.PARENT_CODEC.decode(JsonOps.INSTANCE, element)
-            .flatMap(pair ->
-                pair.getFirst().map(parentId -> {
-                    if (!loadedDependencies.add(parentId)) {
-                        return DataResult.error("Circular dependency: " + pair.getFirst() + " and " + overlayId + ".");
-                    } else {
-                        parseOverlay(resourceManager, loadedDependencies, parentId);
-                        return DataResult.success(Unit.INSTANCE);
-                    }
-                }).orElse(DataResult.success(Unit.INSTANCE))
-            )
-            .flatMap(unit -> Overlay.Some.CODEC.decode(JsonOps.INSTANCE, element));
-
-        result.get().mapLeft(pair -> {
-            overlayInfoMap.put(overlayId, pair.getFirst());
-            return Unit.INSTANCE;
-        });
-
-        return result.map(p -> Unit.INSTANCE);
+        result.result().ifPresent(overlay -> loading.put(overlayId, overlay));
+
+        return result.map(o -> Unit.INSTANCE);
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private DataResult<Unit> parseParent(final ResourceManager resourceManager, final Set<Identifier> loadedDependencies, final Identifier overlayId, final Optional<Identifier> parentId) {
+        if (!parentId.isPresent()) {
+            return DataResult.success(Unit.INSTANCE);
+        } else if (!loadedDependencies.add(parentId.get())) {
+            return DataResult.error("Circular dependency: " + parentId.get() + " and " + overlayId + ".");
+        } else {
+            parseOverlay(resourceManager, loadedDependencies, parentId.get());
+            return DataResult.success(Unit.INSTANCE);
+        }
     }
 
     @Override
@@ -87,13 +139,67 @@ public class OverlayAssetListener implements SimpleResourceReloadListener<Collec
 
                 result.get().ifRight(partial -> META.LOGGER.warn("Error while parsing overlay \"" + id + "\": " + partial.message()));
             }
+
+            cache.save(sources.keySet(), Util.getMainWorkerExecutor());
+
+            overlayInfoMap = loading;
+            loading = new HashMap<>();
+
+            lastChanged = changedOverlays();
+            FRAME_SECTIONS.rebuildLater(lastChanged());
+
+            final @Nullable OverlayReloadEvent event = reloadEvent;
+            reloadEvent = null;
+            if (event != null && event.shouldCommit()) {
+                event.listener = getFabricId().toString();
+                event.files = identifiers.size();
+                event.overlays = overlayInfoMap.size();
+                event.commit();
+            }
         }, executor);
     }
 
+    /**
+     * Finds the overlays whose file differs from the previous reload, including overlays that inherit from them.
+     */
+    private Set<Identifier> changedOverlays() {
+        final Set<Identifier> changed = new HashSet<>();
+
+        for (final Map.Entry<Identifier, HashCode> entry : sources.entrySet()) {
+            if (!entry.getValue().equals(previousSources.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (final Identifier id : previousSources.keySet()) {
+            if (!sources.containsKey(id)) {
+                changed.add(id);
+            }
+        }
+
+        boolean grew = !changed.isEmpty();
+        while (grew) {
+            grew = false;
+            for (final Map.Entry<Identifier, Overlay.Some> entry : overlayInfoMap.entrySet()) {
+                final Optional<Identifier> parent = entry.getValue().parent().id();
+                if (parent.isPresent() && changed.contains(parent.get()) && changed.add(entry.getKey())) {
+                    grew = true;
+                }
+            }
+        }
+
+        return changed;
+    }
+
     private final Identifier id = META.id("assets/overlay");
 
     @Override
     public Identifier getFabricId() {
         return id;
     }
+
+    // texture sources look up sprites while parsing, so the block atlas must be stitched first
+    @Override
+    public Collection<Identifier> getFabricDependencies() {
+        return Collections.singletonList(ResourceReloadListenerKeys.MODELS);
+    }
 }
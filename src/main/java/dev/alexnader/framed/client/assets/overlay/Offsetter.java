@@ -16,6 +16,18 @@ import static dev.alexnader.framed.Framed.META;
 public interface Offsetter extends ToOptional<Offsetter> {
     Float4 offset(Float4 original);
 
+    /**
+     * Offsets the four values starting at {@code start} in place. Offsetters should override this so that no objects
+     * are allocated per quad; the default goes through {@link #offset(Float4)}.
+     */
+    default void offsetInPlace(final float[] values, final int start) {
+        final Float4 result = offset(Float4.of(values[start], values[start + 1], values[start + 2], values[start + 3]));
+        values[start] = result.a;
+        values[start + 1] = result.b;
+        values[start + 2] = result.c;
+        values[start + 3] = result.d;
+    }
+
     Identifier getId();
 
     Identifier NONE_ID = META.id("none");
@@ -36,6 +48,9 @@ public interface Offsetter extends ToOptional<Offsetter> {
             return original;
         }
 
+        @Override
+        public void offsetInPlace(final float[] values, final int start) { }
+
         @Override
         public Identifier getId() {
             return NONE_ID;
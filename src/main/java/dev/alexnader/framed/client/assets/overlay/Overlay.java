@@ -5,7 +5,6 @@ import com.mojang.serialization.codecs.RecordCodecBuilder;
 import dev.alexnader.framed.client.assets.Parent;
 import dev.alexnader.framed.client.transform.TransformResult;
 import dev.alexnader.framed.client.util.ToOptional;
-import dev.alexnader.framed.util.Float4;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.renderer.v1.mesh.MutableQuadView;
@@ -29,7 +28,10 @@ public abstract class Overlay implements ToOptional<Overlay> {
         }
     }
 
-    public abstract TransformResult apply(MutableQuadView mqv, Float4 us, Float4 vs, Direction dir);
+    /**
+     * Applies this overlay to a quad. The UVs may be modified.
+     */
+    public abstract TransformResult apply(MutableQuadView mqv, float[] uvs, Direction dir);
 
     public abstract TextureSource textureSource();
     public abstract Optional<ColoredLike> coloredLike();
@@ -37,7 +39,7 @@ public abstract class Overlay implements ToOptional<Overlay> {
 
     public static final Overlay NONE = new Overlay() {
         @Override
-        public TransformResult apply(final MutableQuadView mqv, final Float4 us, final Float4 vs, final Direction dir) {
+        public TransformResult apply(final MutableQuadView mqv, final float[] uvs, final Direction dir) {
             return TransformResult.NOTHING_TO_DO;
         }
 
@@ -93,14 +95,32 @@ public abstract class Overlay implements ToOptional<Overlay> {
             this.sidedOffsetters = sidedOffsetters.orElse(SidedOffsetters.NONE);
         }
 
+        public Parent parent() {
+            return parent;
+        }
+
+        // the parts defined by this overlay itself, without falling back to the parent
+
+        TextureSource ownTextureSource() {
+            return textureSource;
+        }
+
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        Optional<ColoredLike> ownColoredLike() {
+            return coloredLike;
+        }
+
+        SidedOffsetters.Base ownSidedOffsetters() {
+            return sidedOffsetters;
+        }
+
         @Override
-        public TransformResult apply(final MutableQuadView mqv, final Float4 us, final Float4 vs, final Direction dir) {
-            final Float4 finalUs = sidedOffsetters().applyUs(us, dir);
-            final Float4 finalVs = sidedOffsetters().applyVs(vs, dir);
+        public TransformResult apply(final MutableQuadView mqv, final float[] uvs, final Direction dir) {
+            sidedOffsetters().apply(uvs, dir);
 
             // coloredLike is cached on creation and applied outside of Overlay.apply
 
-            return textureSource().apply(mqv, finalUs, finalVs, dir);
+            return textureSource().apply(mqv, uvs, dir);
         }
 
         @Override
@@ -0,0 +1,275 @@
+package dev.alexnader.framed.client.assets.overlay;
+
+import com.google.common.hash.HashCode;
+import com.mojang.serialization.DataResult;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.registry.Registry;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static dev.alexnader.framed.Framed.META;
+
+/**
+ * Compiled overlay definitions stored in the game directory between launches, keyed by a hash of each overlay file,
+ * so that unchanged overlays are read from a compact binary form instead of going through Gson and the codecs.
+ * Sprites and materials are still looked up when an overlay is read, since they change with the atlas.
+ */
+@Environment(EnvType.CLIENT)
+public class OverlayCache {
+    private static final int VERSION = 1;
+
+    private static final byte NO_TEXTURE = 0;
+    private static final byte SINGLE_TEXTURE = 1;
+    private static final byte SIDED_TEXTURE = 2;
+
+    private static final class Record {
+        public final HashCode hash;
+        public final byte[] bytes;
+
+        private Record(final HashCode hash, final byte[] bytes) {
+            this.hash = hash;
+            this.bytes = bytes;
+        }
+    }
+
+    private final Path path = FabricLoader.getInstance().getGameDir().resolve(META.NAMESPACE).resolve("overlay_cache.bin");
+    private final Map<Identifier, Record> records = new HashMap<>();
+    private boolean loaded;
+    private boolean dirty;
+    private CompletableFuture<Void> pendingSave = CompletableFuture.completedFuture(null);
+
+    /**
+     * @return the overlay compiled from a file with the given hash, or null if it isn't cached
+     */
+    public @Nullable Overlay.Some get(final Identifier id, final HashCode hash) {
+        load();
+
+        final @Nullable Record record = records.get(id);
+        if (record == null || !record.hash.equals(hash)) {
+            return null;
+        }
+
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(record.bytes)));
+        } catch (final IOException | RuntimeException e) {
+            META.LOGGER.debug("Could not read cached overlay " + id + ".", e);
+            records.remove(id);
+            dirty = true;
+            return null;
+        }
+    }
+
+    public void put(final Identifier id, final HashCode hash, final Overlay.Some overlay) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            if (!write(new DataOutputStream(bytes), overlay)) {
+                return;
+            }
+        } catch (final IOException e) {
+            return;
+        }
+
+        records.put(id, new Record(hash, bytes.toByteArray()));
+        dirty = true;
+    }
+
+    /**
+     * Forgets overlays that no longer exist and, if the cache changed, writes it on the given executor.
+     * Records are copied before returning, so the cache may be used again while it is being written.
+     */
+    public void save(final Set<Identifier> present, final Executor executor) {
+        if (records.keySet().retainAll(present)) {
+            dirty = true;
+        }
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        final Map<Identifier, Record> snapshot = new HashMap<>(records);
+        // saves are chained so that an older snapshot never overwrites a newer one
+        pendingSave = pendingSave.thenRunAsync(() -> write(snapshot), executor);
+    }
+
+    private void write(final Map<Identifier, Record> records) {
+        // written beside the cache and moved over it, so a crash mid-write can't leave a truncated cache behind
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(VERSION);
+                out.writeInt(records.size());
+                for (final Map.Entry<Identifier, Record> entry : records.entrySet()) {
+                    out.writeUTF(entry.getKey().toString());
+                    final byte[] hash = entry.getValue().hash.asBytes();
+                    out.writeByte(hash.length);
+                    out.write(hash);
+                    out.writeInt(entry.getValue().bytes.length);
+                    out.write(entry.getValue().bytes);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            META.LOGGER.warn("Could not save the overlay cache.", e);
+        }
+    }
+
+    /**
+     * Reads the cache file if it hasn't been read yet. Called while preparing a reload so that reading overlays
+     * later doesn't touch the disk.
+     */
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != VERSION) {
+                return;
+            }
+
+            for (int i = 0, size = in.readInt(); i < size; i++) {
+                final Identifier id = new Identifier(in.readUTF());
+                final byte[] hash = new byte[in.readUnsignedByte()];
+                in.readFully(hash);
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                records.put(id, new Record(HashCode.fromBytes(hash), bytes));
+            }
+        } catch (final IOException | RuntimeException e) {
+            META.LOGGER.warn("Could not load the overlay cache, overlays will be parsed again.", e);
+            records.clear();
+        }
+    }
+
+    private static void writeOptionalId(final DataOutput out, final Optional<Identifier> id) throws IOException {
+        out.writeBoolean(id.isPresent());
+        if (id.isPresent()) {
+            out.writeUTF(id.get().toString());
+        }
+    }
+
+    private static Optional<Identifier> readOptionalId(final DataInput in) throws IOException {
+        return in.readBoolean() ? Optional.of(new Identifier(in.readUTF())) : Optional.empty();
+    }
+
+    private static void writeEntry(final DataOutput out, final TextureSource.Entry entry) throws IOException {
+        //noinspection ConstantConditions // only Entry.NONE has no texture, and it is never written
+        out.writeUTF(entry.texture.toString());
+        writeOptionalId(out, entry.materialSource);
+    }
+
+    private static TextureSource.Entry readEntry(final DataInput in) throws IOException {
+        return new TextureSource.Entry(new Identifier(in.readUTF()), readOptionalId(in));
+    }
+
+    /**
+     * @return false if the overlay has parts that can't be written, in which case it isn't cached
+     */
+    private static boolean write(final DataOutput out, final Overlay.Some overlay) throws IOException {
+        writeOptionalId(out, overlay.parent().id());
+
+        final TextureSource textureSource = overlay.ownTextureSource();
+        if (textureSource == TextureSource.NONE) {
+            out.writeByte(NO_TEXTURE);
+        } else if (textureSource.kind == TextureSourceKind.SINGLE) {
+            out.writeByte(SINGLE_TEXTURE);
+            writeEntry(out, textureSource.entryFor(Direction.DOWN));
+        } else {
+            out.writeByte(SIDED_TEXTURE);
+            int count = 0;
+            for (final Direction dir : Direction.values()) {
+                if (textureSource.entryFor(dir) != TextureSource.Entry.NONE) {
+                    count++;
+                }
+            }
+            out.writeByte(count);
+            for (final Direction dir : Direction.values()) {
+                final TextureSource.Entry entry = textureSource.entryFor(dir);
+                if (entry != TextureSource.Entry.NONE) {
+                    out.writeByte(dir.ordinal());
+                    writeEntry(out, entry);
+                }
+            }
+        }
+
+        writeOptionalId(out, overlay.ownColoredLike().map(c -> Registry.BLOCK.getId(c.colorSource().getBlock())));
+
+        // offsetters are registered by type, so their own codecs are used
+        final SidedOffsetters.Base offsetters = overlay.ownSidedOffsetters();
+        out.writeBoolean(offsetters != SidedOffsetters.NONE);
+        if (offsetters != SidedOffsetters.NONE) {
+            final DataResult<Tag> result = SidedOffsetters.CODEC.encodeStart(NbtOps.INSTANCE, offsetters);
+            if (!result.result().isPresent()) {
+                return false;
+            }
+            final CompoundTag tag = new CompoundTag();
+            tag.put("offsets", result.result().get());
+            NbtIo.write(tag, out);
+        }
+
+        return true;
+    }
+
+    private static Overlay.Some read(final DataInput in) throws IOException {
+        final Optional<Identifier> parent = readOptionalId(in);
+
+        final Optional<TextureSource> textureSource;
+        switch (in.readByte()) {
+        case NO_TEXTURE:
+            textureSource = Optional.empty();
+            break;
+        case SINGLE_TEXTURE:
+            textureSource = Optional.of(new TextureSource.Single(new Identifier(in.readUTF()), readOptionalId(in)));
+            break;
+        case SIDED_TEXTURE:
+            final EnumMap<Direction, TextureSource.Entry> entries = new EnumMap<>(Direction.class);
+            for (int i = 0, count = in.readByte(); i < count; i++) {
+                final Direction dir = Direction.values()[in.readByte()];
+                entries.put(dir, readEntry(in));
+            }
+            textureSource = Optional.of(new TextureSource.Sided(entries));
+            break;
+        default:
+            throw new IOException("Invalid texture source.");
+        }
+
+        final Optional<ColoredLike> coloredLike = readOptionalId(in).map(id -> new ColoredLike(Registry.BLOCK.get(id).getDefaultState()));
+
+        final Optional<SidedOffsetters.Base> offsetters;
+        if (in.readBoolean()) {
+            final Tag tag = NbtIo.read(in).get("offsets");
+            offsetters = Optional.of(SidedOffsetters.CODEC.parse(NbtOps.INSTANCE, tag).getOrThrow(false, message -> { }));
+        } else {
+            offsetters = Optional.empty();
+        }
+
+        return new Overlay.Some(parent, textureSource, coloredLike, offsetters);
+    }
+}
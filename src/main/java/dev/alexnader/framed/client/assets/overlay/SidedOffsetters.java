@@ -1,8 +1,8 @@
 package dev.alexnader.framed.client.assets.overlay;
 
 import com.mojang.serialization.Codec;
+import dev.alexnader.framed.client.util.QuadUtil;
 import dev.alexnader.framed.client.util.ToOptional;
-import dev.alexnader.framed.util.Float4;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.util.math.Direction;
@@ -27,14 +27,7 @@ public abstract class SidedOffsetters {
         }
 
         @Override
-        public Float4 applyUs(final Float4 origUs, final Direction dir) {
-            return origUs;
-        }
-
-        @Override
-        public Float4 applyVs(final Float4 origVs, final Direction dir) {
-            return origVs;
-        }
+        public void apply(final float[] uvs, final Direction dir) { }
 
         @Override
         public <T> T match(final Function<Base, T> some, final Supplier<T> none) {
@@ -43,30 +36,32 @@ public abstract class SidedOffsetters {
     };
 
     public interface Base extends ToOptional<Base> {
-        Float4 applyUs(Float4 origUs, Direction dir);
-        Float4 applyVs(Float4 origVs, Direction dir);
+        /**
+         * Offsets a quad's UVs in place. See {@link QuadUtil#U_START} for the layout.
+         */
+        void apply(float[] uvs, Direction dir);
     }
 
     public static class Some implements Base, ToOptional.Some<Base> {
         public static final Codec<SidedOffsetters.Some> CODEC = CODECS.sidedMapOf(Offsetters.CODEC).xmap(SidedOffsetters.Some::new, so -> so.map);
 
         private final Map<Direction, Offsetters> map;
+        // indexed by Direction#ordinal; the map is only kept for encoding
+        private final Offsetters[] byDirection = new Offsetters[6];
 
         public Some(final Map<Direction, Offsetters> map) {
             for (final Direction dir : Direction.values()) {
                 map.putIfAbsent(dir, Offsetters.NONE);
+                byDirection[dir.ordinal()] = map.get(dir);
             }
             this.map = map;
         }
 
         @Override
-        public Float4 applyUs(final Float4 origUs, final Direction dir) {
-            return map.get(dir).u.offset(origUs);
-        }
-
-        @Override
-        public Float4 applyVs(final Float4 origVs, final Direction dir) {
-            return map.get(dir).v.offset(origVs);
+        public void apply(final float[] uvs, final Direction dir) {
+            final Offsetters offsetters = byDirection[dir.ordinal()];
+            offsetters.u.offsetInPlace(uvs, QuadUtil.U_START);
+            offsetters.v.offsetInPlace(uvs, QuadUtil.V_START);
         }
     }
 }
@@ -7,7 +7,6 @@ import dev.alexnader.framed.client.transform.MaterialApplier;
 import dev.alexnader.framed.client.transform.SpriteApplier;
 import dev.alexnader.framed.client.transform.TransformResult;
 import dev.alexnader.framed.client.util.ToOptional;
-import dev.alexnader.framed.util.Float4;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.renderer.v1.mesh.MutableQuadView;
@@ -20,6 +19,7 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.util.registry.Registry;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.EnumMap;
 import java.util.Optional;
 import java.util.function.Function;
@@ -33,15 +33,23 @@ public abstract class TextureSource implements ToOptional<TextureSource> {
     public static class Entry {
         public final @Nonnull SpriteApplier textureApplier;
         public final @Nonnull MaterialApplier materialApplier;
+        // as defined, since the appliers lose them when the sprite is missing or has no material
+        public final @Nullable Identifier texture;
+        public final Optional<Identifier> materialSource;
 
         public static final Entry NONE = new Entry();
 
         private Entry() {
             this.textureApplier = SpriteApplier.NONE;
             this.materialApplier = MaterialApplier.NONE;
+            this.texture = null;
+            this.materialSource = Optional.empty();
         }
 
         public Entry(final Identifier texture, final Optional<Identifier> materialSource) {
+            this.texture = texture;
+            this.materialSource = materialSource;
+
             //noinspection deprecation
             final Sprite sprite = MinecraftClient.getInstance().getSpriteAtlas(SpriteAtlasTexture.BLOCK_ATLAS_TEXTURE).apply(texture);
             this.textureApplier = SpriteApplier.ofNullable(sprite);
@@ -75,19 +83,19 @@ public abstract class TextureSource implements ToOptional<TextureSource> {
         this.kind = kind;
     }
 
-    public TransformResult apply(final MutableQuadView mqv, final Float4 us, final Float4 vs, final Direction side) {
+    public TransformResult apply(final MutableQuadView mqv, final float[] uvs, final Direction side) {
         final Entry entry = entryFor(side);
 
         entry.materialApplier.apply(mqv);
-        return entry.textureApplier.apply(mqv, us, vs);
+        return entry.textureApplier.apply(mqv, uvs);
     }
 
     protected abstract @Nonnull Entry entryFor(final Direction side);
 
     public static class Single extends TextureSource implements ToOptional.Some<TextureSource> {
         public static final Codec<Single> SINGLE_CODEC = RecordCodecBuilder.create(inst -> inst.group(
-            Identifier.CODEC.fieldOf("texture").forGetter(s -> s.entry.textureApplier.id()),
-            Identifier.CODEC.optionalFieldOf("materialSource").forGetter(s -> s.entry.materialApplier.id())
+            Identifier.CODEC.fieldOf("texture").forGetter(s -> s.entry.texture),
+            Identifier.CODEC.optionalFieldOf("materialSource").forGetter(s -> s.entry.materialSource)
         ).apply(inst, Single::new));
 
         // optional used to prevent re-wrapping each request.
@@ -111,8 +119,8 @@ public abstract class TextureSource implements ToOptional<TextureSource> {
 
         static {
             final Codec<Entry> sidedValueCodec = RecordCodecBuilder.create(inst -> inst.group(
-                Identifier.CODEC.fieldOf("texture").forGetter(e -> e.textureApplier.id()),
-                Identifier.CODEC.optionalFieldOf("materialFrom").forGetter(e -> e.materialApplier.id())
+                Identifier.CODEC.fieldOf("texture").forGetter(e -> e.texture),
+                Identifier.CODEC.optionalFieldOf("materialFrom").forGetter(e -> e.materialSource)
             ).apply(inst, Entry::new));
 
             SIDED_CODEC = CODECS.sidedMapOf(sidedValueCodec).xmap(
@@ -122,11 +130,14 @@ public abstract class TextureSource implements ToOptional<TextureSource> {
         }
 
         private final EnumMap<Direction, Entry> entries;
+        // indexed by Direction#ordinal, avoiding a map lookup per quad
+        private final Entry[] entryArray = new Entry[6];
 
         public Sided(final EnumMap<Direction, Entry> entries) {
             super(TextureSourceKind.SIDED);
             for (final Direction dir : Direction.values()) {
                 entries.putIfAbsent(dir, Entry.NONE);
+                entryArray[dir.ordinal()] = entries.get(dir);
             }
             this.entries = entries;
         }
@@ -139,7 +150,7 @@ public abstract class TextureSource implements ToOptional<TextureSource> {
         @Nonnull
         @Override
         protected Entry entryFor(final Direction side) {
-            return entries.get(side);
+            return entryArray[side.ordinal()];
         }
     }
 
@@ -156,7 +167,7 @@ public abstract class TextureSource implements ToOptional<TextureSource> {
         }
 
         @Override
-        public TransformResult apply(final MutableQuadView mqv, final Float4 us, final Float4 vs, final Direction side) {
+        public TransformResult apply(final MutableQuadView mqv, final float[] uvs, final Direction side) {
             return TransformResult.NOTHING_TO_DO;
         }
 
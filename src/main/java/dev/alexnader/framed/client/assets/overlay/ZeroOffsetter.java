@@ -28,6 +28,29 @@ public class ZeroOffsetter implements Offsetter, ToOptional.Some<Offsetter> {
         }
     }
 
+    @Override
+    public void offsetInPlace(final float[] values, final int start) {
+        final float a = values[start];
+        final float b = values[start + 1];
+        final float c = values[start + 2];
+        final float d = values[start + 3];
+
+        final float min = Math.min(Math.min(a, b), Math.min(c, d));
+        final float delta = Math.max(Math.max(a, b), Math.max(c, d)) - min;
+
+        if (a == min) {
+            values[start] = 0;
+            values[start + 1] = delta;
+            values[start + 2] = delta;
+            values[start + 3] = 0;
+        } else {
+            values[start] = delta;
+            values[start + 1] = 0;
+            values[start + 2] = 0;
+            values[start + 3] = delta;
+        }
+    }
+
     @Override
     public Identifier getId() {
         return id;
@@ -2,7 +2,6 @@ package dev.alexnader.framed.client.transform;
 
 import dev.alexnader.framed.client.util.ToOptional;
 import dev.alexnader.framed.mixin.mc.BakedQuadAccess;
-import dev.alexnader.framed.util.Float4;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.fabricmc.api.EnvType;
@@ -21,14 +20,24 @@ import java.util.function.Supplier;
 
 @Environment(EnvType.CLIENT)
 public abstract class BaseApplier implements ToOptional<BaseApplier> {
-    public abstract TransformResult apply(MutableQuadView mqv, Direction dir, int index, Float4 us, Float4 vs, int color);
+    public abstract TransformResult apply(MutableQuadView mqv, Direction dir, int index, float[] uvs, int color);
+
+    /**
+     * @return how many quads the base model has on a side
+     */
+    public abstract int quadCount(Direction dir);
 
     public static final BaseApplier NONE = new BaseApplier() {
         @Override
-        public TransformResult apply(final MutableQuadView mqv, final Direction dir, final int index, final Float4 us, final Float4 vs, final int color) {
+        public TransformResult apply(final MutableQuadView mqv, final Direction dir, final int index, final float[] uvs, final int color) {
             return TransformResult.NOTHING_TO_DO;
         }
 
+        @Override
+        public int quadCount(final Direction dir) {
+            return 0;
+        }
+
         @Override
         public Optional<BaseApplier> toOptional() {
             return Optional.empty();
@@ -46,6 +55,7 @@ public abstract class BaseApplier implements ToOptional<BaseApplier> {
         private final Map<Direction, SpriteApplier[]> spriteAppliers = new HashMap<>(7);
         private final Map<Direction, MaterialApplier[]> materialAppliers = new HashMap<>(7);
         private final Map<Direction, LazyColorApplier[]> colorAppliers = new HashMap<>(7);
+        private final Map<Direction, TransformResult> failures = new HashMap<>(7);
 
         public Some(final BlockState state, final BakedModel model, final Random r) {
             this.state = state;
@@ -55,6 +65,9 @@ public abstract class BaseApplier implements ToOptional<BaseApplier> {
                 final int size = quads.size();
 
                 sizes.put(dir, size);
+                if (size == 0) {
+                    failures.put(dir, TransformResult.failed(TransformResult.Reason.NO_QUADS_ON_FACE, state, dir));
+                }
                 final SpriteApplier[] spriteAppliers = this.spriteAppliers.computeIfAbsent(dir, x -> new SpriteApplier[size]);
                 final MaterialApplier[] materialAppliers = this.materialAppliers.computeIfAbsent(dir, x -> new MaterialApplier[size]);
                 final LazyColorApplier[] colorAppliers = this.colorAppliers.computeIfAbsent(dir, x -> new LazyColorApplier[size]);
@@ -76,15 +89,20 @@ public abstract class BaseApplier implements ToOptional<BaseApplier> {
         }
 
         @Override
-        public TransformResult apply(final MutableQuadView mqv, final Direction dir, final int quadIndex, final Float4 us, final Float4 vs, final int color) {
+        public int quadCount(final Direction dir) {
+            return sizes.getInt(dir);
+        }
+
+        @Override
+        public TransformResult apply(final MutableQuadView mqv, final Direction dir, final int quadIndex, final float[] uvs, final int color) {
             int size = sizes.getInt(dir);
             if (size == 0) {
-                return TransformResult.failed(String.format("No %s quads in model for %s.", dir, state));
+                return failures.get(dir);
             }
             final int index = quadIndex % size;
             materialAppliers.get(dir)[index].apply(mqv);
             colorAppliers.get(dir)[index].apply(mqv, color);
-            return spriteAppliers.get(dir)[index].apply(mqv, us, vs);
+            return spriteAppliers.get(dir)[index].apply(mqv, uvs);
         }
     }
 }
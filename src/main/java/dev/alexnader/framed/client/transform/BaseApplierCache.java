@@ -0,0 +1,111 @@
+package dev.alexnader.framed.client.transform;
+
+import dev.alexnader.framed.client.FrameMetrics;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.resource.ResourceReloadListenerKeys;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.model.BakedModel;
+import net.minecraft.client.render.model.WeightedBakedModel;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.alexnader.framed.Framed.META;
+import static dev.alexnader.framed.client.FramedClient.METRICS;
+
+/**
+ * Memoizes base appliers per base block state, so that the base model's quads are only looked through once.
+ * Models with weighted variants pick their quads randomly per position, so those are never cached.
+ * Appliers hold baked models and sprites, so the table is cleared whenever models are reloaded.
+ */
+@Environment(EnvType.CLIENT)
+public class BaseApplierCache implements SimpleSynchronousResourceReloadListener {
+    private final Map<BlockState, BaseApplier> appliers = new ConcurrentHashMap<>();
+    private final FrameMetrics.CacheStats stats = METRICS.cache("base applier");
+    // incremented on every reload, so that appliers built from old models are never stored afterwards
+    private volatile int generation;
+
+    public BaseApplier get(final BlockState state, final Random random) {
+        final BaseApplier cached = appliers.get(state);
+        if (cached != null) {
+            stats.hit();
+            return cached;
+        }
+
+        stats.miss();
+        // meshing may have started before a reload, in which case the model is already stale
+        final int generation = this.generation;
+        final BakedModel model = MinecraftClient.getInstance().getBlockRenderManager().getModel(state);
+        if (model instanceof WeightedBakedModel) {
+            return new BaseApplier.Some(state, model, random);
+        }
+
+        final BaseApplier applier = new BaseApplier.Some(state, model, random);
+        final @Nullable BaseApplier existing = appliers.putIfAbsent(state, applier);
+        if (existing != null) {
+            return existing;
+        }
+        // as in warm, an applier stored after the clear is removed again
+        if (generation != this.generation) {
+            appliers.remove(state, applier);
+        }
+        return applier;
+    }
+
+    public int generation() {
+        return generation;
+    }
+
+    /**
+     * Builds and stores the applier for a state ahead of meshing, unless models were reloaded after {@code generation}.
+     * May be called from any thread.
+     */
+    public void warm(final BlockState state, final int generation, final Random random) {
+        if (generation != this.generation || appliers.containsKey(state)) {
+            return;
+        }
+
+        final BakedModel model = MinecraftClient.getInstance().getBlockRenderManager().getModel(state);
+        if (model instanceof WeightedBakedModel) {
+            return;
+        }
+
+        final BaseApplier applier = new BaseApplier.Some(state, model, random);
+        appliers.putIfAbsent(state, applier);
+        // apply increments the generation before clearing, so an applier stored after the clear is caught here
+        if (generation != this.generation) {
+            appliers.remove(state, applier);
+        }
+    }
+
+    public int size() {
+        return appliers.size();
+    }
+
+    @Override
+    public void apply(final ResourceManager manager) {
+        generation++;
+        appliers.clear();
+    }
+
+    private final Identifier id = META.id("assets/base_applier_cache");
+
+    @Override
+    public Identifier getFabricId() {
+        return id;
+    }
+
+    @Override
+    public Collection<Identifier> getFabricDependencies() {
+        return Collections.singletonList(ResourceReloadListenerKeys.MODELS);
+    }
+}
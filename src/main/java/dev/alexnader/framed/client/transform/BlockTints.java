@@ -0,0 +1,32 @@
+package dev.alexnader.framed.client.transform;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.rendering.v1.ColorProviderRegistry;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.color.block.BlockColorProvider;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockRenderView;
+
+import javax.annotation.Nullable;
+
+/**
+ * Block tints for frame parts. Biome colors are already cached per position by the client world, which chunk
+ * meshing views delegate to, so tints aren't cached here.
+ */
+@Environment(EnvType.CLIENT)
+public final class BlockTints {
+    private BlockTints() {
+        throw new IllegalStateException("Should not instantiate utility class.");
+    }
+
+    /**
+     * Returned when a block has no color provider. Real tints always have an opaque alpha channel.
+     */
+    public static final int NO_TINT = 0;
+
+    public static int tint(final BlockState state, final BlockRenderView view, final BlockPos pos) {
+        final @Nullable BlockColorProvider provider = ColorProviderRegistry.BLOCK.get(state.getBlock());
+        return provider == null ? NO_TINT : provider.getColor(state, view, pos, 1) | 0xFF000000;
+    }
+}
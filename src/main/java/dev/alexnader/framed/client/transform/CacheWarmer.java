@@ -0,0 +1,78 @@
+package dev.alexnader.framed.client.transform;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.block.BlockState;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static dev.alexnader.framed.Framed.META;
+import static dev.alexnader.framed.client.FramedClient.BASE_APPLIERS;
+import static dev.alexnader.framed.client.FramedClient.CLIENT_OVERLAYS;
+import static dev.alexnader.framed.client.FramedClient.FRAME_SECTIONS;
+import static dev.alexnader.framed.client.FramedClient.MATERIALS;
+
+/**
+ * After a reload, builds the base appliers (and with them the materials) for every base state used by loaded frames
+ * on worker threads, so that the chunk rebuilds following the reload don't all have to build them.
+ */
+@Environment(EnvType.CLIENT)
+public class CacheWarmer implements SimpleSynchronousResourceReloadListener {
+    private static final int BATCH_SIZE = 32;
+
+    @Override
+    public void apply(final ResourceManager manager) {
+        final List<BlockState> states = new ArrayList<>(FRAME_SECTIONS.baseStates());
+        if (states.isEmpty()) {
+            return;
+        }
+
+        final int generation = BASE_APPLIERS.generation();
+        final long start = System.nanoTime();
+
+        final CompletableFuture<?>[] batches = new CompletableFuture<?>[(states.size() + BATCH_SIZE - 1) / BATCH_SIZE];
+        for (int i = 0; i < batches.length; i++) {
+            final List<BlockState> batch = states.subList(i * BATCH_SIZE, Math.min((i + 1) * BATCH_SIZE, states.size()));
+            batches[i] = CompletableFuture.runAsync(() -> warm(batch, generation), Util.getMainWorkerExecutor());
+        }
+
+        CompletableFuture.allOf(batches).whenComplete((result, e) -> {
+            if (e != null) {
+                META.LOGGER.warn("Could not warm frame caches.", e);
+            } else {
+                META.LOGGER.debug("Warmed frame caches for {} base states in {} ms.", states.size(), (System.nanoTime() - start) / 1_000_000);
+            }
+        });
+    }
+
+    private static void warm(final List<BlockState> states, final int generation) {
+        final Random random = new Random(42L);
+        for (final BlockState state : states) {
+            if (generation != BASE_APPLIERS.generation()) {
+                return;
+            }
+            BASE_APPLIERS.warm(state, generation, random);
+        }
+    }
+
+    private final Identifier id = META.id("assets/cache_warmer");
+
+    @Override
+    public Identifier getFabricId() {
+        return id;
+    }
+
+    @Override
+    public Collection<Identifier> getFabricDependencies() {
+        return Arrays.asList(CLIENT_OVERLAYS.getFabricId(), MATERIALS.getFabricId(), BASE_APPLIERS.getFabricId());
+    }
+}
@@ -3,12 +3,15 @@ package dev.alexnader.framed.client.transform;
 import com.mojang.datafixers.util.Pair;
 import dev.alexnader.framed.block.FrameSlotInfo;
 import dev.alexnader.framed.block.frame.data.FrameData;
+import dev.alexnader.framed.client.assets.overlay.ColoredLike;
 import dev.alexnader.framed.client.assets.overlay.Overlay;
-import dev.alexnader.framed.util.Float4;
+import dev.alexnader.framed.client.util.QuadUtil;
+import dev.alexnader.framed.jfr.ChunkFramesMeshedEvent;
+import dev.alexnader.framed.jfr.FrameTransformEvent;
+import dev.alexnader.framed.jfr.FramedEvents;
 import grondag.jmx.api.QuadTransformRegistry;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
-import net.fabricmc.fabric.api.client.rendering.v1.ColorProviderRegistry;
 import net.fabricmc.fabric.api.renderer.v1.mesh.MutableQuadView;
 import net.fabricmc.fabric.api.renderer.v1.render.RenderContext;
 import net.fabricmc.fabric.api.rendering.data.v1.RenderAttachedBlockView;
@@ -25,38 +28,89 @@ import net.minecraft.world.BlockRenderView;
 
 import java.util.*;
 import java.util.function.Supplier;
-import java.util.stream.IntStream;
 
 import static dev.alexnader.framed.Framed.META;
+import static dev.alexnader.framed.client.FramedClient.BASE_APPLIERS;
 import static dev.alexnader.framed.client.FramedClient.CLIENT_OVERLAYS;
+import static dev.alexnader.framed.client.FramedClient.METRICS;
+import static dev.alexnader.framed.client.FramedClient.TRANSFORM_FAILURES;
 import static dev.alexnader.framed.client.util.QuadUtil.calcCenter;
-import static dev.alexnader.framed.util.FunctionalUtil.*;
 
 @Environment(EnvType.CLIENT)
 public final class FrameTransform implements RenderContext.QuadTransform {
     public static final QuadTransformRegistry.QuadTransformSource SOURCE = new QuadTransformRegistry.QuadTransformSource() {
         @Override
         public RenderContext.QuadTransform getForBlock(final BlockRenderView brv, final BlockState state, final BlockPos pos, final Supplier<Random> randomSupplier) {
-            return new FrameTransform(brv, state, pos, randomSupplier);
+            METRICS.frameMeshed();
+            if (FramedEvents.AVAILABLE) {
+                return createRecorded(brv, state, pos, randomSupplier);
+            }
+            return forBlock(brv, state, pos, randomSupplier);
         }
 
         @Override
         public RenderContext.QuadTransform getForItem(final ItemStack stack, final Supplier<Random> randomSupplier) {
             final FrameSlotInfo slotInfo = (FrameSlotInfo) ((BlockItem) stack.getItem()).getBlock();
+            final FrameData frameData;
             if (!stack.hasTag()) {
-                return new FrameTransform(slotInfo, new FrameData(slotInfo.sections()), randomSupplier);
+                frameData = new FrameData(slotInfo.sections());
             } else {
                 //noinspection ConstantConditions // any frame with a tag *should* have these keys
-                return new FrameTransform(
-                    slotInfo,
-                    FrameData.fromTag(stack.getSubTag("BlockEntityTag").getCompound("frameData")),
-                    randomSupplier
-                );
+                frameData = FrameData.fromTag(stack.getSubTag("BlockEntityTag").getCompound("frameData"));
             }
+
+            //noinspection ConstantConditions // player cannot be null while rendering
+            return new FrameTransform().reset(
+                slotInfo,
+                MinecraftClient.getInstance().player.clientWorld,
+                MinecraftClient.getInstance().player.getBlockPos(),
+                randomSupplier,
+                frameData.toRenderAttachment()
+            );
         }
     };
 
-    private final EnumMap<Direction, Integer> transformedCount = new EnumMap<>(Direction.class);
+    /**
+     * Each meshing thread reuses one transform for every frame it meshes; a transform is only used until the next
+     * block is meshed on the same thread.
+     */
+    private static final ThreadLocal<FrameTransform> POOL = ThreadLocal.withInitial(FrameTransform::new);
+
+    private static FrameTransform forBlock(final BlockRenderView brv, final BlockState state, final BlockPos pos, final Supplier<Random> randomSupplier) {
+        //noinspection unchecked,ConstantConditions
+        return POOL.get().reset(
+            (FrameSlotInfo) state.getBlock(),
+            brv,
+            pos,
+            randomSupplier,
+            (List<Pair<Optional<BlockState>, Optional<Identifier>>>) ((RenderAttachedBlockView) brv).getBlockEntityRenderAttachment(pos)
+        );
+    }
+
+    private static FrameTransform createRecorded(final BlockRenderView brv, final BlockState state, final BlockPos pos, final Supplier<Random> randomSupplier) {
+        final FrameTransformEvent event = new FrameTransformEvent();
+        event.begin();
+
+        final FrameTransform transform = forBlock(brv, state, pos, randomSupplier);
+
+        if (event.shouldCommit()) {
+            event.x = pos.getX();
+            event.y = pos.getY();
+            event.z = pos.getZ();
+            event.block = state.toString();
+            event.attachmentSize = transform.partCount;
+            event.commit();
+        }
+        ChunkFramesMeshedEvent.frameMeshed(pos.getX(), pos.getY(), pos.getZ());
+
+        return transform;
+    }
+
+    // see QuadUtil.U_START for the layout; reused for every quad
+    private final float[] uvs = new float[8];
+
+    // by Direction.ordinal
+    private final int[] transformedCount = new int[6];
 
     @Override
     public boolean transform(final MutableQuadView mqv) {
@@ -64,42 +118,66 @@ public final class FrameTransform implements RenderContext.QuadTransform {
             return true;
         }
 
+        if (!METRICS.timingQuads()) {
+            return transformTagged(mqv);
+        }
+
+        final long start = System.nanoTime();
+        final boolean result = transformTagged(mqv);
+        METRICS.quadTransformed(System.nanoTime() - start);
+        return result;
+    }
+
+    private boolean transformTagged(final MutableQuadView mqv) {
         final Direction dir = mqv.lightFace();
 
-        final int quadIndex = transformedCount.computeIfAbsent(dir, d -> 0);
-        transformedCount.put(dir, quadIndex + 1);
+        final int quadIndex = transformedCount[dir.ordinal()]++;
+
+        final int sideBit = 1 << dir.ordinal();
+        if (mqv.tag() == 2 && (skippedOverlaySides & sideBit) != 0) {
+            return false;
+        }
 
         final int partIndex = getPartIndex(mqv, dir);
 
         final Data data = this.data[partIndex];
 
-        final Pair<Float4, Float4> origUvs = getUvs(mqv, dir);
+        if (mqv.tag() == 2 && (data.skippedOverlaySides & sideBit) != 0) {
+            return false;
+        }
+
+        getUvs(mqv, dir, uvs);
 
         if (mqv.tag() == 1) {
-            TransformResult result = data.baseApplier.apply(mqv, dir, quadIndex, origUvs.getFirst(), origUvs.getSecond(), data.baseColor);
+            TransformResult result = data.baseApplier.apply(mqv, dir, quadIndex, uvs, data.baseColor);
             // render quad even when NOTHING_TO_DO so that regular frame texture shows
             switch (result.status) {
             case DID_SOMETHING:
             case NOTHING_TO_DO:
                 return true;
             case FAILED:
-                META.LOGGER.warn("An error occurred with a frame: " + result.message);
+                METRICS.quadFailed();
+                TRANSFORM_FAILURES.report(result);
                 return false;
             }
         } else if (mqv.tag() == 2) {
-            TransformResult result = data.overlay.match(
-                overlay -> {
-                    data.overlayColorApplier.apply(mqv);
-                    return overlay.apply(mqv, origUvs.getFirst(), origUvs.getSecond(), dir);
-                },
-                () -> data.baseApplier.apply(mqv, dir, quadIndex, origUvs.getFirst(), origUvs.getSecond(), data.baseColor)
-            );
+            final TransformResult result;
+            if (data.overlay != Overlay.NONE) {
+                final int overlayColor = data.overlayColor;
+                if (overlayColor != BlockTints.NO_TINT) {
+                    mqv.spriteColor(0, overlayColor, overlayColor, overlayColor, overlayColor);
+                }
+                result = data.overlay.apply(mqv, uvs, dir);
+            } else {
+                result = data.baseApplier.apply(mqv, dir, quadIndex, uvs, data.baseColor);
+            }
 
             switch (result.status) {
             case DID_SOMETHING:
                 return true;
             case FAILED:
-                META.LOGGER.warn("An error occurred with a frame: " + result.message);
+                METRICS.quadFailed();
+                TRANSFORM_FAILURES.report(result);
             case NOTHING_TO_DO:
                 return false;
             }
@@ -111,79 +189,92 @@ public final class FrameTransform implements RenderContext.QuadTransform {
         return false;
     }
 
-    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private static class Data {
-        public final BaseApplier baseApplier;
-        public final Overlay overlay;
-        public final ColorApplier overlayColorApplier;
-        public final int baseColor;
+        public BaseApplier baseApplier = BaseApplier.NONE;
+        public Overlay overlay = Overlay.NONE;
+        /**
+         * {@link BlockTints#NO_TINT} when the overlay is not tinted.
+         */
+        public int overlayColor;
+        public int baseColor;
+        /**
+         * Bits (by {@link Direction#ordinal}) of the sides where overlay layer quads would not change anything:
+         * there is no overlay, and the base model has at most one quad there, so the base layer already shows it.
+         */
+        public int skippedOverlaySides;
 
-        public Data(final BaseApplier baseApplier, final Overlay overlay, final OptionalInt maybeCachedOverlayColor, final int baseColor) {
+        public void reset(final BaseApplier baseApplier, final Overlay overlay, final int overlayColor, final int baseColor) {
             this.baseApplier = baseApplier;
             this.overlay = overlay;
-            this.overlayColorApplier = ColorApplier.ofOptional(maybeCachedOverlayColor);
+            this.overlayColor = overlayColor;
             this.baseColor = baseColor;
+
+            int skippedOverlaySides = 0;
+            if (overlay == Overlay.NONE) {
+                for (final Direction dir : DIRECTIONS) {
+                    if (baseApplier.quadCount(dir) <= 1) {
+                        skippedOverlaySides |= 1 << dir.ordinal();
+                    }
+                }
+            }
+            this.skippedOverlaySides = skippedOverlaySides;
         }
     }
 
-    private final FrameSlotInfo slotInfo;
-    private final Data[] data;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private FrameSlotInfo slotInfo;
+    private Data[] data = new Data[0];
+    private int partCount;
+    // sides skipped by every part, which can be dropped before finding the part
+    private int skippedOverlaySides;
+
+    private FrameTransform() { }
 
-    private FrameTransform(final FrameSlotInfo slotInfo, final BlockRenderView brv, final BlockPos pos, final Supplier<Random> randomSupplier, final List<Pair<Optional<BlockState>, Optional<Identifier>>> attachment) {
+    private FrameTransform reset(final FrameSlotInfo slotInfo, final BlockRenderView brv, final BlockPos pos, final Supplier<Random> randomSupplier, final List<Pair<Optional<BlockState>, Optional<Identifier>>> attachment) {
         this.slotInfo = slotInfo;
+        Arrays.fill(transformedCount, 0);
 
-        data = attachment.stream().map(pair -> {
-            final Optional<BlockState> maybeBaseState = pair.getFirst();
+        final int partCount = attachment.size();
+        if (data.length < partCount) {
+            final int oldLength = data.length;
+            data = Arrays.copyOf(data, partCount);
+            for (int i = oldLength; i < partCount; i++) {
+                data[i] = new Data();
+            }
+        }
+        this.partCount = partCount;
 
-            final int color;
-            final BaseApplier baseApplier;
+        int skippedOverlaySides = partCount == 0 ? 0 : ~0;
+        for (int i = 0; i < partCount; i++) {
+            final Pair<Optional<BlockState>, Optional<Identifier>> pair = attachment.get(i);
 
+            final int baseColor;
+            final BaseApplier baseApplier;
+            final Optional<BlockState> maybeBaseState = pair.getFirst();
             if (maybeBaseState.isPresent()) {
                 final BlockState baseState = maybeBaseState.get();
-                color = Optional.ofNullable(ColorProviderRegistry.BLOCK.get(baseState.getBlock()))
-                    .map(prov -> prov.getColor(baseState, brv, pos, 1) | 0xFF000000)
-                    .orElse(0xFFFFFFFF);
-                baseApplier = new BaseApplier.Some(baseState, MinecraftClient.getInstance().getBlockRenderManager().getModel(baseState), randomSupplier.get());
+                final int tint = BlockTints.tint(baseState, brv, pos);
+                baseColor = tint == BlockTints.NO_TINT ? 0xFFFFFFFF : tint;
+                baseApplier = BASE_APPLIERS.get(baseState, randomSupplier.get());
             } else {
-                color = 0xFFFFFFFF;
+                baseColor = 0xFFFFFFFF;
                 baseApplier = BaseApplier.NONE;
             }
 
-            final Overlay overlay = pair.getSecond().map(CLIENT_OVERLAYS::getOverlayFor).orElse(Overlay.NONE);
+            final Optional<Identifier> maybeOverlayId = pair.getSecond();
+            final Overlay overlay = maybeOverlayId.isPresent() ? CLIENT_OVERLAYS.getOverlayFor(maybeOverlayId.get()) : Overlay.NONE;
 
-            final OptionalInt cachedOverlayColor =
-                flatMapToInt(
-                    overlay.coloredLike(),
-                    coloredLike -> mapToInt(
-                        Optional.ofNullable(ColorProviderRegistry.BLOCK.get(coloredLike.colorSource().getBlock())),
-                        prov -> prov.getColor(coloredLike.colorSource(), brv, pos, 1) | 0xFF000000
-                    )
-                );
-
-            return new Data(baseApplier, overlay, cachedOverlayColor, color);
-        }).toArray(Data[]::new);
-    }
+            final Optional<ColoredLike> coloredLike = overlay.coloredLike();
+            final int overlayColor = coloredLike.isPresent() ? BlockTints.tint(coloredLike.get().colorSource(), brv, pos) : BlockTints.NO_TINT;
 
-    private FrameTransform(final FrameSlotInfo slotInfo, final FrameData frameData, final Supplier<Random> randomSupplier) {
-        //noinspection ConstantConditions // player cannot be null while rendering, stack must have tag or this constructor will not run
-        this(
-            slotInfo,
-            MinecraftClient.getInstance().player.clientWorld,
-            MinecraftClient.getInstance().player.getBlockPos(),
-            randomSupplier,
-            frameData.toRenderAttachment()
-        );
-    }
+            final Data part = data[i];
+            part.reset(baseApplier, overlay, overlayColor, baseColor);
+            skippedOverlaySides &= part.skippedOverlaySides;
+        }
+        this.skippedOverlaySides = skippedOverlaySides;
 
-    private FrameTransform(final BlockRenderView brv, final BlockState state, final BlockPos pos, final Supplier<Random> randomSupplier) {
-        //noinspection unchecked,ConstantConditions
-        this(
-            (FrameSlotInfo) state.getBlock(),
-            brv,
-            pos,
-            randomSupplier,
-            (List<Pair<Optional<BlockState>, Optional<Identifier>>>) ((RenderAttachedBlockView) brv).getBlockEntityRenderAttachment(pos)
-        );
+        return this;
     }
 
     protected int getPartIndex(final MutableQuadView mqv, final Direction dir) {
@@ -197,42 +288,48 @@ public final class FrameTransform implements RenderContext.QuadTransform {
         );
     }
 
-    protected Pair<Float4, Float4> getUvs(final MutableQuadView mqv, final Direction dir) {
-        final IntStream us = IntStream.rangeClosed(0, 3);
-        final IntStream vs = IntStream.rangeClosed(0, 3);
-        switch (dir) {
-        case DOWN:
-            return Pair.of(
-                Float4.fromIterator(us.mapToDouble(i -> MathHelper.clamp(mqv.x(i), 0, 1)).iterator()),
-                Float4.fromIterator(vs.mapToDouble(i -> 1 - MathHelper.clamp(mqv.z(i), 0, 1)).iterator())
-            );
-        case UP:
-            return Pair.of(
-                Float4.fromIterator(us.mapToDouble(i -> MathHelper.clamp(mqv.x(i), 0, 1)).iterator()),
-                Float4.fromIterator(vs.mapToDouble(i -> MathHelper.clamp(mqv.z(i), 0, 1)).iterator())
-            );
-        case NORTH:
-            return Pair.of(
-                Float4.fromIterator(us.mapToDouble(i -> 1 - MathHelper.clamp(mqv.x(i), 0f, 1f)).iterator()),
-                Float4.fromIterator(vs.mapToDouble(i -> 1 - MathHelper.clamp(mqv.y(i), 0f, 1f)).iterator())
-            );
-        case SOUTH:
-            return Pair.of(
-                Float4.fromIterator(us.mapToDouble(i -> MathHelper.clamp(mqv.x(i), 0f, 1f)).iterator()),
-                Float4.fromIterator(vs.mapToDouble(i -> 1 - MathHelper.clamp(mqv.y(i), 0f, 1f)).iterator())
-            );
-        case EAST:
-            return Pair.of(
-                Float4.fromIterator(us.mapToDouble(i -> 1 - MathHelper.clamp(mqv.z(i), 0f, 1f)).iterator()),
-                Float4.fromIterator(vs.mapToDouble(i -> 1 - MathHelper.clamp(mqv.y(i), 0f, 1f)).iterator())
-            );
-        case WEST:
-            return Pair.of(
-                Float4.fromIterator(us.mapToDouble(i -> MathHelper.clamp(mqv.z(i), 0f, 1f)).iterator()),
-                Float4.fromIterator(vs.mapToDouble(i -> 1 - MathHelper.clamp(mqv.y(i), 0f, 1f)).iterator())
-            );
-        default:
-            throw new IllegalArgumentException("Invalid direction: " + dir);
+    /**
+     * Writes the UVs of a quad's vertices, as seen from the given side, into {@code uvs}.
+     */
+    protected void getUvs(final MutableQuadView mqv, final Direction dir, final float[] uvs) {
+        for (int i = 0; i < 4; i++) {
+            final float x = MathHelper.clamp(mqv.x(i), 0f, 1f);
+            final float y = MathHelper.clamp(mqv.y(i), 0f, 1f);
+            final float z = MathHelper.clamp(mqv.z(i), 0f, 1f);
+
+            final float u;
+            final float v;
+            switch (dir) {
+            case DOWN:
+                u = x;
+                v = 1 - z;
+                break;
+            case UP:
+                u = x;
+                v = z;
+                break;
+            case NORTH:
+                u = 1 - x;
+                v = 1 - y;
+                break;
+            case SOUTH:
+                u = x;
+                v = 1 - y;
+                break;
+            case EAST:
+                u = 1 - z;
+                v = 1 - y;
+                break;
+            case WEST:
+                u = z;
+                v = 1 - y;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + dir);
+            }
+
+            uvs[QuadUtil.U_START + i] = u;
+            uvs[QuadUtil.V_START + i] = v;
         }
     }
 }
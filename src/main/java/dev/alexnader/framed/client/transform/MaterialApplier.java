@@ -1,6 +1,5 @@
 package dev.alexnader.framed.client.transform;
 
-import grondag.frex.api.material.MaterialMap;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.renderer.v1.material.RenderMaterial;
@@ -14,6 +13,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Optional;
 
+import static dev.alexnader.framed.client.FramedClient.MATERIALS;
+
 @Environment(EnvType.CLIENT)
 public abstract class MaterialApplier {
     public static MaterialApplier ofSpriteAndBlockState(@Nonnull final Sprite sprite, @Nullable final BlockState blockState) {
@@ -21,15 +22,12 @@ public abstract class MaterialApplier {
             return NONE;
         }
 
-        final RenderMaterial material = MaterialMap.get(blockState).getMapped(sprite);
-        final Identifier id = Registry.BLOCK.getId(blockState.getBlock());
-
-        return MaterialApplier.ofNullable(id, material);
+        return MATERIALS.get(blockState, sprite);
     }
 
-    public static MaterialApplier ofNullable(@Nullable final Identifier id, @Nullable final RenderMaterial toApply) {
-        if (id != null && toApply != null) {
-            return new Some(id, toApply);
+    public static MaterialApplier ofNullable(@Nullable final BlockState source, @Nullable final RenderMaterial toApply) {
+        if (source != null && toApply != null) {
+            return new Some(source, toApply);
         } else {
             return NONE;
         }
@@ -50,11 +48,11 @@ public abstract class MaterialApplier {
     public abstract Optional<Identifier> id();
 
     public static class Some extends MaterialApplier {
-        private final @Nonnull Identifier id;
+        private final @Nonnull BlockState source;
         private final @Nonnull RenderMaterial toApply;
 
-        public Some(final @Nonnull Identifier id, final @Nonnull RenderMaterial toApply) {
-            this.id = id;
+        public Some(final @Nonnull BlockState source, final @Nonnull RenderMaterial toApply) {
+            this.source = source;
             this.toApply = toApply;
         }
 
@@ -65,7 +63,8 @@ public abstract class MaterialApplier {
 
         @Override
         public Optional<Identifier> id() {
-            return Optional.of(id);
+            // only needed when encoding overlays, so not looked up ahead of time
+            return Optional.of(Registry.BLOCK.getId(source.getBlock()));
         }
     }
 }
@@ -0,0 +1,68 @@
+package dev.alexnader.framed.client.transform;
+
+import dev.alexnader.framed.client.FrameMetrics;
+import grondag.frex.api.material.MaterialMap;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.resource.ResourceReloadListenerKeys;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.texture.Sprite;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.alexnader.framed.Framed.META;
+import static dev.alexnader.framed.client.FramedClient.METRICS;
+
+/**
+ * Memoizes FREX material mapping per block state and sprite. Sprites are replaced when the block atlas is
+ * restitched, so the table is cleared whenever models are reloaded.
+ */
+@Environment(EnvType.CLIENT)
+public class MaterialCache implements SimpleSynchronousResourceReloadListener {
+    private final Map<BlockState, Map<Sprite, MaterialApplier>> appliers = new ConcurrentHashMap<>();
+    private final FrameMetrics.CacheStats stats = METRICS.cache("material");
+
+    public MaterialApplier get(final BlockState state, final Sprite sprite) {
+        final Map<Sprite, MaterialApplier> forState = appliers.computeIfAbsent(state, s -> new ConcurrentHashMap<>(4));
+
+        final MaterialApplier cached = forState.get(sprite);
+        if (cached != null) {
+            stats.hit();
+            return cached;
+        }
+
+        stats.miss();
+        return forState.computeIfAbsent(sprite, s -> MaterialApplier.ofNullable(state, MaterialMap.get(state).getMapped(s)));
+    }
+
+    public int size() {
+        int size = 0;
+        for (final Map<Sprite, MaterialApplier> forState : appliers.values()) {
+            size += forState.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void apply(final ResourceManager manager) {
+        appliers.clear();
+    }
+
+    private final Identifier id = META.id("assets/material_cache");
+
+    @Override
+    public Identifier getFabricId() {
+        return id;
+    }
+
+    @Override
+    public Collection<Identifier> getFabricDependencies() {
+        return Collections.singletonList(ResourceReloadListenerKeys.MODELS);
+    }
+}
@@ -1,13 +1,12 @@
 package dev.alexnader.framed.client.transform;
 
-import dev.alexnader.framed.util.Float4;
+import dev.alexnader.framed.client.util.QuadUtil;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.renderer.v1.mesh.MutableQuadView;
 import net.minecraft.client.texture.MissingSprite;
 import net.minecraft.client.texture.Sprite;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.math.MathHelper;
 
 import javax.annotation.Nullable;
 
@@ -21,12 +20,15 @@ public abstract class SpriteApplier {
         }
     }
 
-    public abstract TransformResult apply(MutableQuadView mqv, Float4 us, Float4 vs);
+    /**
+     * Maps UVs in [0, 1] onto the sprite. See {@link QuadUtil#U_START} for the layout.
+     */
+    public abstract TransformResult apply(MutableQuadView mqv, float[] uvs);
     public abstract Identifier id();
 
     public static final SpriteApplier NONE = new SpriteApplier() {
         @Override
-        public TransformResult apply(final MutableQuadView mqv, final Float4 us, final Float4 vs) {
+        public TransformResult apply(final MutableQuadView mqv, final float[] uvs) {
             return TransformResult.NOTHING_TO_DO;
         }
 
@@ -36,25 +38,36 @@ public abstract class SpriteApplier {
         }
     };
 
+    /**
+     * Copies the sprite's bounds when created, so applying only needs fields of this object.
+     * Sprites are replaced when the atlas is restitched, so appliers must be recreated on reload.
+     */
     public static class Some extends SpriteApplier {
-        private final Sprite toApply;
+        private final Identifier id;
+        private final float minU;
+        private final float spanU;
+        private final float minV;
+        private final float spanV;
 
         public Some(final Sprite toApply) {
-            this.toApply = toApply;
+            id = toApply.getId();
+            minU = toApply.getMinU();
+            spanU = toApply.getMaxU() - minU;
+            minV = toApply.getMinV();
+            spanV = toApply.getMaxV() - minV;
         }
 
         @Override
-        public TransformResult apply(final MutableQuadView mqv, final Float4 us, final Float4 vs) {
-            mqv.sprite(0, 0, MathHelper.lerp(us.a, toApply.getMinU(), toApply.getMaxU()), MathHelper.lerp(vs.a, toApply.getMinV(), toApply.getMaxV()));
-            mqv.sprite(1, 0, MathHelper.lerp(us.b, toApply.getMinU(), toApply.getMaxU()), MathHelper.lerp(vs.b, toApply.getMinV(), toApply.getMaxV()));
-            mqv.sprite(2, 0, MathHelper.lerp(us.c, toApply.getMinU(), toApply.getMaxU()), MathHelper.lerp(vs.c, toApply.getMinV(), toApply.getMaxV()));
-            mqv.sprite(3, 0, MathHelper.lerp(us.d, toApply.getMinU(), toApply.getMaxU()), MathHelper.lerp(vs.d, toApply.getMinV(), toApply.getMaxV()));
+        public TransformResult apply(final MutableQuadView mqv, final float[] uvs) {
+            for (int i = 0; i < 4; i++) {
+                mqv.sprite(i, 0, minU + spanU * uvs[QuadUtil.U_START + i], minV + spanV * uvs[QuadUtil.V_START + i]);
+            }
             return TransformResult.DID_SOMETHING;
         }
 
         @Override
         public Identifier id() {
-            return toApply.getId();
+            return id;
         }
     }
 }
@@ -0,0 +1,67 @@
+package dev.alexnader.framed.client.transform;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.alexnader.framed.Framed.META;
+
+/**
+ * Collects failed transforms from chunk meshing threads. The first occurrence of each distinct failure is logged
+ * immediately, and repeats are counted and summarized periodically from the client thread.
+ */
+@Environment(EnvType.CLIENT)
+public class TransformFailureReporter {
+    private static final long SUMMARY_NANOS = 30_000_000_000L;
+    private static final int MAX_SUMMARY_LINES = 10;
+
+    private final Map<TransformResult, LongAdder> repeats = new ConcurrentHashMap<>();
+    private long lastSummary = System.nanoTime();
+
+    public void report(final TransformResult failure) {
+        final LongAdder count = repeats.get(failure);
+        if (count != null) {
+            count.increment();
+        } else if (repeats.putIfAbsent(failure, new LongAdder()) == null) {
+            META.LOGGER.warn("An error occurred with a frame: " + failure.message() + " Repeats will be summarized every " + SUMMARY_NANOS / 1_000_000_000L + " seconds.");
+        } else {
+            repeats.get(failure).increment();
+        }
+    }
+
+    public void tick(final MinecraftClient client) {
+        final long now = System.nanoTime();
+        if (now - lastSummary < SUMMARY_NANOS) {
+            return;
+        }
+        lastSummary = now;
+
+        int lines = 0;
+        int omitted = 0;
+        long omittedCount = 0;
+        for (final Iterator<Map.Entry<TransformResult, LongAdder>> it = repeats.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<TransformResult, LongAdder> entry = it.next();
+            final long count = entry.getValue().sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+
+            if (lines < MAX_SUMMARY_LINES) {
+                META.LOGGER.warn("An error occurred with a frame " + count + " more times: " + entry.getKey().message());
+                lines++;
+            } else {
+                omitted++;
+                omittedCount += count;
+            }
+        }
+
+        if (omitted > 0) {
+            META.LOGGER.warn(omitted + " other kinds of frame errors occurred " + omittedCount + " more times.");
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package dev.alexnader.framed.client.transform;
 
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.Direction;
+
 import javax.annotation.Nullable;
+import java.util.Objects;
 
+/**
+ * Failed results are compared by reason, base state and direction, so that repeated failures can be counted together.
+ * Their message is only formatted when it is logged.
+ */
 public class TransformResult {
     public enum Status {
         DID_SOMETHING,
@@ -10,18 +18,52 @@ public class TransformResult {
         ;
     }
 
-    public static final TransformResult DID_SOMETHING = new TransformResult(Status.DID_SOMETHING, null);
-    public static final TransformResult NOTHING_TO_DO = new TransformResult(Status.NOTHING_TO_DO, null);
+    public enum Reason {
+        NO_QUADS_ON_FACE("No %2$s quads in model for %1$s."),
+        ;
+
+        private final String format;
+
+        Reason(final String format) {
+            this.format = format;
+        }
+    }
+
+    public static final TransformResult DID_SOMETHING = new TransformResult(Status.DID_SOMETHING, null, null, null);
+    public static final TransformResult NOTHING_TO_DO = new TransformResult(Status.NOTHING_TO_DO, null, null, null);
 
     public final Status status;
-    public final @Nullable String message;
+    public final @Nullable Reason reason;
+    private final @Nullable BlockState state;
+    private final @Nullable Direction dir;
 
-    private TransformResult(Status status, @Nullable String message) {
+    private TransformResult(final Status status, @Nullable final Reason reason, @Nullable final BlockState state, @Nullable final Direction dir) {
         this.status = status;
-        this.message = message;
+        this.reason = reason;
+        this.state = state;
+        this.dir = dir;
+    }
+
+    public static TransformResult failed(final Reason reason, @Nullable final BlockState state, @Nullable final Direction dir) {
+        return new TransformResult(Status.FAILED, reason, state, dir);
+    }
+
+    public String message() {
+        return reason == null ? status.toString() : String.format(reason.format, state, dir);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final TransformResult that = (TransformResult) o;
+
+        return status == that.status && reason == that.reason && state == that.state && dir == that.dir;
     }
 
-    public static TransformResult failed(String message) {
-        return new TransformResult(Status.FAILED, message);
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, reason, state, dir);
     }
 }
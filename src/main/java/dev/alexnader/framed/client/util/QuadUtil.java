@@ -10,6 +10,16 @@ public class QuadUtil {
         throw new IllegalStateException("Should not instantiate utility class.");
     }
 
+    /**
+     * Where each vertex's U coordinate starts in a UV array, which holds the four U coordinates followed by the four
+     * V coordinates of a quad.
+     */
+    public static final int U_START = 0;
+    /**
+     * Where each vertex's V coordinate starts in a UV array.
+     */
+    public static final int V_START = 4;
+
     public static float calcCenter(final Int2FloatFunction key) {
         float min = Float.POSITIVE_INFINITY;
         float max = Float.NEGATIVE_INFINITY;
@@ -18,7 +28,8 @@ public class QuadUtil {
             final float cur = key.get(i);
             if (cur > max) {
                 max = cur;
-            } else if (cur < min) {
+            }
+            if (cur < min) {
                 min = cur;
             }
         }
@@ -0,0 +1,288 @@
+package dev.alexnader.framed.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.Dynamic2CommandExceptionType;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import dev.alexnader.framed.block.FrameSlotInfo;
+import dev.alexnader.framed.block.entity.FrameBlockEntity;
+import dev.alexnader.framed.block.entity.FrameIndex;
+import dev.alexnader.framed.block.frame.data.FrameData;
+import dev.alexnader.framed.job.FrameEditJob;
+import dev.alexnader.framed.stats.FrameStats;
+import dev.alexnader.framed.util.Section;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.argument.BlockPosArgumentType;
+import net.minecraft.command.argument.BlockStateArgumentType;
+import net.minecraft.command.argument.IdentifierArgumentType;
+import net.minecraft.command.argument.ItemStackArgumentType;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.TranslatableText;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.registry.Registry;
+
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static dev.alexnader.framed.Framed.FRAME_INDEX;
+import static dev.alexnader.framed.Framed.FRAME_STATS;
+import static dev.alexnader.framed.Framed.JOBS;
+import static dev.alexnader.framed.Framed.OVERLAYS;
+import static dev.alexnader.framed.util.ValidQuery.checkIf;
+import static net.minecraft.server.command.CommandManager.argument;
+import static net.minecraft.server.command.CommandManager.literal;
+
+public class FramedCommand {
+    private FramedCommand() {
+        throw new IllegalStateException("Should not instantiate utility class.");
+    }
+
+    private static final int MAX_CHUNKS = 16384;
+
+    private static final Dynamic2CommandExceptionType TOO_LARGE = new Dynamic2CommandExceptionType(
+        (count, max) -> new TranslatableText("commands.framed.too_large", count, max)
+    );
+    private static final DynamicCommandExceptionType NO_ITEM = new DynamicCommandExceptionType(
+        block -> new TranslatableText("commands.framed.no_item", block)
+    );
+    private static final DynamicCommandExceptionType UNKNOWN_BLOCK = new DynamicCommandExceptionType(
+        id -> new TranslatableText("argument.block.id.invalid", id)
+    );
+    private static final DynamicCommandExceptionType NOT_AN_OVERLAY = new DynamicCommandExceptionType(
+        item -> new TranslatableText("commands.framed.not_an_overlay", item)
+    );
+
+    public static void register(final CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(literal("framed")
+            .requires(source -> source.hasPermissionLevel(2))
+            .then(literal("stats")
+                .executes(FramedCommand::stats)
+            )
+            .then(literal("fill")
+                .then(argument("from", BlockPosArgumentType.blockPos())
+                    .then(argument("to", BlockPosArgumentType.blockPos())
+                        .then(literal("base")
+                            .then(argument("state", BlockStateArgumentType.blockState())
+                                .executes(ctx -> startEdit(ctx, frame -> true, fillBase(
+                                    BlockStateArgumentType.getBlockState(ctx, "state").getBlockState()
+                                )))
+                            )
+                        )
+                        .then(literal("overlay")
+                            .then(argument("item", ItemStackArgumentType.itemStack())
+                                .executes(ctx -> startEdit(ctx, frame -> true, fillOverlay(
+                                    overlayStack(ItemStackArgumentType.getItemStackArgument(ctx, "item").createStack(1, false))
+                                )))
+                            )
+                        )
+                    )
+                )
+            )
+            .then(literal("replace")
+                .then(argument("from", BlockPosArgumentType.blockPos())
+                    .then(argument("to", BlockPosArgumentType.blockPos())
+                        .then(literal("base")
+                            // base states are matched by block only, so the old one is a plain block id
+                            .then(argument("old", IdentifierArgumentType.identifier())
+                                .suggests((ctx, builder) -> CommandSource.suggestIdentifiers(Registry.BLOCK.getIds(), builder))
+                                .then(argument("new", BlockStateArgumentType.blockState())
+                                    .executes(ctx -> startEdit(ctx, FrameIndex.withBase(block(ctx, "old")), replaceBase(
+                                        block(ctx, "old"),
+                                        BlockStateArgumentType.getBlockState(ctx, "new").getBlockState()
+                                    )))
+                                )
+                            )
+                        )
+                        .then(literal("overlay")
+                            .then(argument("old", ItemStackArgumentType.itemStack())
+                                .then(argument("new", ItemStackArgumentType.itemStack())
+                                    .executes(ctx -> startEdit(ctx, FrameIndex.withOverlayItem(ItemStackArgumentType.getItemStackArgument(ctx, "old").getItem()), replaceOverlay(
+                                        ItemStackArgumentType.getItemStackArgument(ctx, "old").getItem(),
+                                        overlayStack(ItemStackArgumentType.getItemStackArgument(ctx, "new").createStack(1, false))
+                                    )))
+                                )
+                            )
+                        )
+                    )
+                )
+            )
+        );
+    }
+
+    private static String kib(final double bytes) {
+        return String.format("%.1f", bytes / 1024);
+    }
+
+    private static int stats(final CommandContext<ServerCommandSource> ctx) {
+        final ServerCommandSource source = ctx.getSource();
+        final boolean measured = FRAME_STATS.measure();
+
+        int total = 0;
+        for (final ServerWorld world : source.getMinecraftServer().getWorlds()) {
+            final Set<BlockState> baseStates = new HashSet<>();
+            final Set<Identifier> overlays = new HashSet<>();
+            final long[] heapBytes = { 0 };
+
+            FRAME_INDEX.forEach(world, frame -> {
+                final FrameData data = frame.data();
+                heapBytes[0] += data.estimateHeapBytes();
+
+                for (int i = 0, size = data.sections().base().size(); i < size; i++) {
+                    final @Nullable BlockState baseState = data.getBaseState(i);
+                    if (baseState != null) {
+                        baseStates.add(baseState);
+                    }
+                    final ItemStack overlayItem = data.getOverlayItem(i);
+                    if (!overlayItem.isEmpty()) {
+                        OVERLAYS.getOverlayId(overlayItem).ifPresent(overlays::add);
+                    }
+                }
+            });
+
+            final int frames = FRAME_INDEX.size(world);
+            total += frames;
+
+            source.sendFeedback(new TranslatableText(
+                "commands.framed.stats.world",
+                world.getRegistryKey().getValue(),
+                frames,
+                FRAME_INDEX.chunkCount(world),
+                baseStates.size(),
+                overlays.size(),
+                kib(heapBytes[0])
+            ), false);
+
+            if (measured) {
+                final FrameStats.WorldStats stats = FRAME_STATS.get(world);
+                source.sendFeedback(new TranslatableText(
+                    "commands.framed.stats.traffic",
+                    kib(stats.lastSaveBytes()),
+                    String.format("%.1f", stats.packetsPerSecond()),
+                    kib(stats.bytesPerSecond())
+                ), false);
+            }
+        }
+
+        if (!measured) {
+            source.sendFeedback(new TranslatableText("commands.framed.stats.measuring"), false);
+        }
+
+        return total;
+    }
+
+    private static int startEdit(final CommandContext<ServerCommandSource> ctx, final Predicate<FrameBlockEntity> filter, final FrameEditJob.Edit edit) throws CommandSyntaxException {
+        final BlockBox box = new BlockBox(BlockPosArgumentType.getBlockPos(ctx, "from"), BlockPosArgumentType.getBlockPos(ctx, "to"));
+
+        final int chunkCount = FrameEditJob.chunkCount(box);
+        if (chunkCount > MAX_CHUNKS) {
+            throw TOO_LARGE.create(chunkCount, MAX_CHUNKS);
+        }
+
+        final ServerCommandSource source = ctx.getSource();
+        JOBS.add(new FrameEditJob(source, source.getWorld(), box, filter, edit));
+        source.sendFeedback(new TranslatableText("commands.framed.edit.started", chunkCount), true);
+
+        return chunkCount;
+    }
+
+    private static Block block(final CommandContext<ServerCommandSource> ctx, final String name) throws CommandSyntaxException {
+        final Identifier id = IdentifierArgumentType.getIdentifier(ctx, name);
+        return Registry.BLOCK.getOrEmpty(id).orElseThrow(() -> UNKNOWN_BLOCK.create(id));
+    }
+
+    private static ItemStack overlayStack(final ItemStack stack) throws CommandSyntaxException {
+        if (!OVERLAYS.hasOverlay(stack)) {
+            throw NOT_AN_OVERLAY.create(stack.toHoverableText());
+        }
+        return stack;
+    }
+
+    private static boolean slotIsValid(final FrameBlockEntity frame, final int slot) {
+        final BlockState state = frame.getCachedState();
+        final Block block = state.getBlock();
+        return block instanceof FrameSlotInfo && ((FrameSlotInfo) block).absoluteSlotIsValid(frame, state, slot);
+    }
+
+    private static boolean setBase(final FrameBlockEntity frame, final BlockState baseState, final Item baseItem, @Nullable final Block replacing) {
+        if (!checkIf(baseState).isValidForBase(frame.getWorld(), frame.getPos())) {
+            return false;
+        }
+
+        final FrameData data = frame.data();
+        final Section base = data.sections().base();
+
+        boolean changed = false;
+        for (int i = 0, size = base.size(); i < size; i++) {
+            final @Nullable BlockState current = data.getBaseState(i);
+            if (current == baseState || !slotIsValid(frame, base.makeAbsolute(i))) {
+                continue;
+            }
+            if (replacing != null && (current == null || current.getBlock() != replacing)) {
+                continue;
+            }
+
+            data.setStack(base.makeAbsolute(i), new ItemStack(baseItem));
+            data.setBaseState(i, baseState);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private static boolean setOverlay(final FrameBlockEntity frame, final ItemStack overlay, @Nullable final Item replacing) {
+        final FrameData data = frame.data();
+        final Section overlaySection = data.sections().overlay();
+
+        boolean changed = false;
+        for (final int slot : overlaySection) {
+            final Item current = data.getStack(slot).getItem();
+            if (current == overlay.getItem() || !slotIsValid(frame, slot)) {
+                continue;
+            }
+            if (replacing != null && current != replacing) {
+                continue;
+            }
+
+            data.setStack(slot, overlay.copy());
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private static Item baseItem(final BlockState state) throws CommandSyntaxException {
+        final Item item = state.getBlock().asItem();
+        if (item == Items.AIR) {
+            throw NO_ITEM.create(state.getBlock().getName());
+        }
+        return item;
+    }
+
+    private static FrameEditJob.Edit fillBase(final BlockState state) throws CommandSyntaxException {
+        final Item item = baseItem(state);
+        return frame -> setBase(frame, state, item, null);
+    }
+
+    private static FrameEditJob.Edit replaceBase(final Block old, final BlockState state) throws CommandSyntaxException {
+        final Item item = baseItem(state);
+        return frame -> setBase(frame, state, item, old);
+    }
+
+    private static FrameEditJob.Edit fillOverlay(final ItemStack overlay) {
+        return frame -> setOverlay(frame, overlay, null);
+    }
+
+    private static FrameEditJob.Edit replaceOverlay(final Item old, final ItemStack overlay) {
+        return frame -> setOverlay(frame, overlay, old);
+    }
+}
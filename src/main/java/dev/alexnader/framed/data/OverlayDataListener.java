@@ -1,53 +1,121 @@
 package dev.alexnader.framed.data;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import dev.alexnader.framed.jfr.FramedEvents;
+import dev.alexnader.framed.jfr.OverlayReloadEvent;
 import net.fabricmc.fabric.api.resource.SimpleResourceReloadListener;
 import net.minecraft.item.ItemStack;
 import net.minecraft.recipe.Ingredient;
+import net.minecraft.resource.Resource;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.profiler.Profiler;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 import static dev.alexnader.framed.Framed.META;
 
 public class OverlayDataListener implements SimpleResourceReloadListener<Collection<Identifier>> {
-    private final Map<Ingredient, Identifier> triggers = new HashMap<>();
+    private static class Trigger {
+        public final HashCode hash;
+        public final Ingredient ingredient;
+        // tags are reloaded with data, so ingredients using them can't be reused
+        public final boolean usesTags;
+
+        public Trigger(final HashCode hash, final Ingredient ingredient, final boolean usesTags) {
+            this.hash = hash;
+            this.ingredient = ingredient;
+            this.usesTags = usesTags;
+        }
+    }
+
+    private static boolean usesTags(final JsonElement trigger) {
+        if (trigger.isJsonArray()) {
+            for (final JsonElement element : trigger.getAsJsonArray()) {
+                if (usesTags(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return trigger.isJsonObject() && trigger.getAsJsonObject().has("tag");
+    }
+
+    // replaced rather than modified, so lookups during a reload see a complete set
+    private volatile Map<Identifier, Trigger> triggers = Collections.emptyMap();
+    // read by the client after an integrated server reloads data
+    private volatile Set<Identifier> lastChanged = Collections.emptySet();
 
     public Optional<Identifier> getOverlayId(final ItemStack stack) {
-        return triggers.entrySet().stream().filter(e -> e.getKey().test(stack)).map(Map.Entry::getValue).findFirst();
+        for (final Map.Entry<Identifier, Trigger> entry : triggers.entrySet()) {
+            if (entry.getValue().ingredient.test(stack)) {
+                return Optional.of(entry.getKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the ids of the overlays that were added, removed or modified by the last reload
+     */
+    public Set<Identifier> lastChanged() {
+        return lastChanged;
     }
 
     public boolean hasOverlay(final ItemStack stack) {
         return getOverlayId(stack).isPresent();
     }
 
+    private @Nullable OverlayReloadEvent reloadEvent;
+
     @Override
     public CompletableFuture<Collection<Identifier>> load(final ResourceManager resourceManager, final Profiler profiler, final Executor executor) {
-        return CompletableFuture.supplyAsync(() -> {
-            triggers.clear();
+        if (FramedEvents.AVAILABLE) {
+            final OverlayReloadEvent event = new OverlayReloadEvent();
+            event.begin();
+            reloadEvent = event;
+        }
 
-            return resourceManager.findResources("framed/overlays", s -> s.endsWith(".json"));
-        }, executor);
+        return CompletableFuture.supplyAsync(() -> resourceManager.findResources("framed/overlays", s -> s.endsWith(".json")), executor);
     }
 
     @Override
     public CompletableFuture<Void> apply(final Collection<Identifier> identifiers, final ResourceManager resourceManager, final Profiler profiler, final Executor executor) {
         return CompletableFuture.runAsync(() -> {
+            final Map<Identifier, Trigger> previous = triggers;
+            final Map<Identifier, Trigger> next = new LinkedHashMap<>();
+            final Set<Identifier> changed = new HashSet<>();
+            int parsed = 0;
+
             for (final Identifier id : identifiers) {
                 try {
-                    final JsonElement element = new Gson().fromJson(new BufferedReader(new InputStreamReader(resourceManager.getResource(id).getInputStream())), JsonElement.class);
+                    final byte[] bytes;
+                    try (Resource resource = resourceManager.getResource(id)) {
+                        bytes = ByteStreams.toByteArray(resource.getInputStream());
+                    }
+                    final HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+
+                    final @Nullable Trigger old = previous.get(id);
+                    if (old != null && old.hash.equals(hash) && !old.usesTags) {
+                        next.put(id, old);
+                        continue;
+                    }
+                    if (old == null || !old.hash.equals(hash)) {
+                        changed.add(id);
+                    }
+
+                    final JsonElement element = new Gson().fromJson(new String(bytes, StandardCharsets.UTF_8), JsonElement.class);
+                    parsed++;
 
                     if (!element.isJsonObject()) {
                         throw new JsonParseException("Invalid JSON: expected an object.");
@@ -59,11 +127,30 @@ public class OverlayDataListener implements SimpleResourceReloadListener<Collect
                         throw new JsonParseException("Invalid JSON: expected the key `trigger`.");
                     }
 
-                    triggers.put(Ingredient.fromJson(obj.get("trigger")), id);
+                    next.put(id, new Trigger(hash, Ingredient.fromJson(obj.get("trigger")), usesTags(obj.get("trigger"))));
                 } catch (final Exception e) {
                     META.LOGGER.warn("Exception while parsing overlay: " + e);
                 }
             }
+
+            for (final Identifier id : previous.keySet()) {
+                if (!next.containsKey(id)) {
+                    changed.add(id);
+                }
+            }
+
+            triggers = next;
+            lastChanged = changed;
+            META.LOGGER.debug("Reloaded overlay triggers: parsed {} of {} files, {} changed.", parsed, identifiers.size(), changed.size());
+
+            final @Nullable OverlayReloadEvent event = reloadEvent;
+            reloadEvent = null;
+            if (event != null && event.shouldCommit()) {
+                event.listener = getFabricId().toString();
+                event.files = identifiers.size();
+                event.overlays = next.size();
+                event.commit();
+            }
         }, executor);
     }
 
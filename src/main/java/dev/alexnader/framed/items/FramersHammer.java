@@ -1,9 +1,11 @@
 package dev.alexnader.framed.items;
 
-import com.mojang.datafixers.util.Pair;
 import dev.alexnader.framed.block.FrameSlotInfo;
 import dev.alexnader.framed.block.entity.FrameBlockEntity;
 import dev.alexnader.framed.block.frame.data.FrameData;
+import dev.alexnader.framed.job.HammerApplyJob;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.entity.BlockEntity;
@@ -12,6 +14,8 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.ItemUsageContext;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Hand;
@@ -20,11 +24,9 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+
+import static dev.alexnader.framed.Framed.JOBS;
 
 public class FramersHammer extends Item {
     public FramersHammer(final Settings settings) {
@@ -42,19 +44,44 @@ public class FramersHammer extends Item {
             this.translationKey = translationKey;
         }
 
+        private static final CopyMode[] VALUES = values();
+
         public CopyMode next() {
-            return CopyMode.values()[(id + 1) % CopyMode.values().length];
+            return VALUES[(id + 1) % VALUES.length];
         }
 
         public static final CopyMode DEFAULT = NONE;
 
+        public static CopyMode fromId(final int id) {
+            return 0 <= id && id < VALUES.length ? VALUES[id] : DEFAULT;
+        }
+
         public static Optional<CopyMode> fromString(final String string) {
-            return Arrays.stream(values()).filter(s -> s.translationKey.equals(string)).findFirst();
+            for (final CopyMode mode : VALUES) {
+                if (mode.translationKey.equals(string) || mode.name().equals(string)) {
+                    return Optional.of(mode);
+                }
+            }
+            return Optional.empty();
         }
 
         public static CopyMode fromStringOrDefault(final String string) {
             return fromString(string).orElse(DEFAULT);
         }
+
+        /**
+         * Reads the mode stored on a hammer. Older hammers stored the mode as a string,
+         * which is still understood until the mode is next written.
+         */
+        public static CopyMode fromTag(@Nullable final CompoundTag tag) {
+            if (tag == null) {
+                return DEFAULT;
+            } else if (tag.contains("mode", 99)) {
+                return fromId(tag.getInt("mode"));
+            } else {
+                return fromStringOrDefault(tag.getString("mode"));
+            }
+        }
     }
 
     public static class Data {
@@ -63,10 +90,7 @@ public class FramersHammer extends Item {
                 tag.contains("storedData")
                     ? FrameData.fromTag(tag.getCompound("storedData"))
                     : null,
-                (tag.contains("mode")
-                    ? CopyMode.fromString(tag.getString("mode"))
-                    : Optional.<CopyMode>empty()
-                ).orElse(CopyMode.DEFAULT)
+                CopyMode.fromTag(tag)
             );
         }
 
@@ -79,96 +103,102 @@ public class FramersHammer extends Item {
             this.mode = mode;
         }
 
+        public @Nullable FrameData storedData() {
+            return storedData;
+        }
+
+        public CopyMode mode() {
+            return mode;
+        }
+
+        public boolean isCompatibleWith(final FrameBlockEntity frame) {
+            return storedData != null && storedData.sections().equals(frame.sections());
+        }
+
         public boolean applySettings(final FrameSlotInfo slotInfo, final BlockState state, final FrameBlockEntity frame, final PlayerEntity player, final World world) {
-            final FrameData storedData = this.storedData;
             if (storedData == null) {
                 return false;
             }
 
-            if (!storedData.sections().equals(frame.sections())) {
+            if (!isCompatibleWith(frame)) {
                 player.sendMessage(new TranslatableText("gui.framed.framers_hammer.different_format"), true);
                 return false;
             }
 
-            if (player.isCreative()) {
-                if (mode == CopyMode.NONE) {
-                    return false;
-                }
+            final boolean applied;
+            frame.beginBatch();
+            try {
+                applied = applyTo(slotInfo, state, frame, player, world, player.isCreative() ? null : new PlayerInventoryIndex(player.inventory));
+            } finally {
+                frame.endBatch();
+            }
+
+            if (applied) {
+                player.sendMessage(new TranslatableText("gui.framed.framers_hammer.apply_settings"), true);
+            }
+
+            return applied;
+        }
 
+        /**
+         * Applies the stored data to a frame without any feedback to the player.
+         * @param inventory where to take items from, or null to copy them for free (as in creative mode)
+         * @return whether the settings were applied
+         */
+        public boolean applyTo(final FrameSlotInfo slotInfo, final BlockState state, final FrameBlockEntity frame, final PlayerEntity player, final World world, @Nullable final PlayerInventoryIndex inventory) {
+            final FrameData storedData = this.storedData;
+            if (storedData == null || mode == CopyMode.NONE) {
+                return false;
+            }
+
+            if (inventory == null) {
                 if (!world.isClient) {
-                    IntStream.range(0, storedData.items().length)
-                        .boxed()
-                        .map(i -> new Pair<>(storedData.items()[i], i))
-                        .flatMap(pair -> pair.getFirst().map(itemStack -> Stream.of(new Pair<>(itemStack, pair.getSecond()))).orElseGet(Stream::empty))
-                        .forEach(pair -> frame.setStack(pair.getSecond(), pair.getFirst().copy()));
-                }
-            } else {
-                final boolean requireAllItems;
-                switch (mode) {
-                case NONE:
-                    return false;
-                case ANY:
-                    requireAllItems = false;
-                    break;
-                case REQUIRE_ALL:
-                    requireAllItems = true;
-                    break;
-                default:
-                    throw new IllegalStateException("Unreachable.");
+                    for (int i = 0, size = storedData.size(); i < size; i++) {
+                        if (storedData.hasStack(i)) {
+                            frame.setStack(i, storedData.getStack(i).copy());
+                        }
+                    }
                 }
+                return true;
+            }
 
-                final Map<Item, Integer> itemSlotToFrameSlot = IntStream.range(0, storedData.items().length)
-                    .boxed()
-                    .map(i -> new Pair<>(storedData.items()[i], i))
-                    .flatMap(pair -> {
-                        if (pair.getFirst().isPresent()) {
-                            //noinspection OptionalGetWithoutIsPresent
-                            return Stream.of(pair.mapFirst(stack -> stack.get().getItem()));
-                        } else {
-                            return Stream.empty();
-                        }
-                    })
-                    .collect(Pair.toMap());
-
-                final Map<Integer, Integer> playerSlotToFrameSlot = IntStream.range(0, player.inventory.size())
-                    .boxed()
-                    .map(i -> new Pair<>(Optional.of(player.inventory.getStack(i)).filter(s -> !s.isEmpty()), i))
-                    .flatMap(pair -> {
-                        final Optional<ItemStack> maybeStack = pair.getFirst();
-                        if (maybeStack.isPresent()) {
-                            final Item item = maybeStack.get().getItem();
-                            if (itemSlotToFrameSlot.containsKey(item)) {
-                                return Stream.of(new Pair<>(pair.getSecond(), itemSlotToFrameSlot.get(item)));
-                            } else {
-                                return Stream.empty();
-                            }
-                        } else {
-                            return Stream.empty();
-                        }
-                    })
-                    .collect(Pair.toMap());
+            if (mode == CopyMode.REQUIRE_ALL) {
+                // the same item may be needed in several slots
+                final Reference2IntMap<Item> needed = new Reference2IntOpenHashMap<>();
+                for (int frameSlot = 0, size = storedData.size(); frameSlot < size; frameSlot++) {
+                    if (!storedData.hasStack(frameSlot)) {
+                        continue;
+                    }
+                    final Item item = storedData.getStack(frameSlot).getItem();
+                    if (frame.getStack(frameSlot).getItem() != item && slotInfo.absoluteSlotIsValid(frame, state, frameSlot)) {
+                        needed.put(item, needed.getInt(item) + 1);
+                    }
+                }
 
-                if (requireAllItems && playerSlotToFrameSlot.size() != Arrays.stream(storedData.items()).filter(Optional::isPresent).count()) {
-                    return false;
+                for (final Reference2IntMap.Entry<Item> entry : needed.reference2IntEntrySet()) {
+                    if (inventory.count(entry.getKey()) < entry.getIntValue()) {
+                        return false;
+                    }
                 }
+            }
 
-                if (!world.isClient) {
-                    for (final Map.Entry<Integer, Integer> entry : playerSlotToFrameSlot.entrySet()) {
-                        final int playerSlot = entry.getKey();
-                        final int frameSlot = entry.getValue();
-
-                        if (frame.getStack(frameSlot).getItem() != player.inventory.getStack(playerSlot).getItem() && slotInfo.absoluteSlotIsValid(frame, state, frameSlot)) {
-                            if (!frame.getStack(frameSlot).isEmpty()) {
-                                player.inventory.offerOrDrop(world, frame.removeStack(frameSlot));
-                            }
-                            frame.setStack(frameSlot, player.inventory.removeStack(playerSlot, 1));
+            if (!world.isClient) {
+                for (int frameSlot = 0, size = storedData.size(); frameSlot < size; frameSlot++) {
+                    if (!storedData.hasStack(frameSlot)) {
+                        continue;
+                    }
+
+                    final Item item = storedData.getStack(frameSlot).getItem();
+
+                    if (frame.getStack(frameSlot).getItem() != item && inventory.contains(item) && slotInfo.absoluteSlotIsValid(frame, state, frameSlot)) {
+                        if (!frame.getStack(frameSlot).isEmpty()) {
+                            player.inventory.offerOrDrop(world, frame.removeStack(frameSlot));
                         }
+                        frame.setStack(frameSlot, inventory.take(item));
                     }
                 }
             }
 
-            player.sendMessage(new TranslatableText("gui.framed.framers_hammer.apply_settings"), true);
-
             return true;
         }
     }
@@ -176,12 +206,37 @@ public class FramersHammer extends Item {
     private CompoundTag getTagOrAssignDefault(final ItemStack stack) {
         if (stack.getTag() == null) {
             final CompoundTag tag = new CompoundTag();
-            tag.putString("mode", CopyMode.DEFAULT.toString());
+            tag.putInt("mode", CopyMode.DEFAULT.id);
             stack.setTag(tag);
         }
         return stack.getTag();
     }
 
+    private void selectRegionCorner(final CompoundTag tag, final Data data, final ServerWorld world, final ServerPlayerEntity player, final BlockPos pos) {
+        if (!tag.contains("regionStart", 4)) {
+            tag.putLong("regionStart", pos.asLong());
+            player.sendMessage(new TranslatableText("gui.framed.framers_hammer.region_start"), true);
+            return;
+        }
+
+        final BlockPos start = BlockPos.fromLong(tag.getLong("regionStart"));
+        tag.remove("regionStart");
+
+        if (data.storedData() == null || data.mode() == CopyMode.NONE) {
+            player.sendMessage(new TranslatableText("gui.framed.framers_hammer.nothing_stored"), true);
+            return;
+        }
+
+        final HammerApplyJob job = new HammerApplyJob(world, player, data, start, pos);
+        if (job.volume() > HammerApplyJob.MAX_VOLUME) {
+            player.sendMessage(new TranslatableText("gui.framed.framers_hammer.region_too_large", job.volume(), HammerApplyJob.MAX_VOLUME), true);
+            return;
+        }
+
+        JOBS.add(job);
+        player.sendMessage(new TranslatableText("gui.framed.framers_hammer.region_started"), true);
+    }
+
     @Override
     public ActionResult useOnBlock(final ItemUsageContext context) {
         final CompoundTag tag = getTagOrAssignDefault(context.getStack());
@@ -191,6 +246,14 @@ public class FramersHammer extends Item {
         final World world = context.getWorld();
         final BlockState state = world.getBlockState(pos);
 
+        final @Nullable PlayerEntity player = context.getPlayer();
+        if (player != null && !player.isSneaking() && tag.getBoolean("region")) {
+            if (!world.isClient) {
+                selectRegionCorner(tag, data, (ServerWorld) world, (ServerPlayerEntity) player, pos);
+            }
+            return ActionResult.SUCCESS;
+        }
+
         final Block block = state.getBlock();
         if (!(block instanceof FrameSlotInfo)) {
             return super.useOnBlock(context);
@@ -203,7 +266,6 @@ public class FramersHammer extends Item {
         }
         final FrameBlockEntity frame = (FrameBlockEntity) blockEntity;
 
-        final PlayerEntity player = context.getPlayer();
         if (player == null) {
             return super.useOnBlock(context);
         }
@@ -230,11 +292,25 @@ public class FramersHammer extends Item {
 
         final ItemStack stack = user.getStackInHand(hand);
         final CompoundTag tag = getTagOrAssignDefault(stack);
-        final CopyMode mode = CopyMode.fromStringOrDefault(tag.getString("mode"));
+        final CopyMode mode = CopyMode.fromTag(tag);
+        final boolean region = tag.getBoolean("region");
+
+        // cycles through each mode for single frames, then each mode for regions
+        CopyMode newMode = mode.next();
+        boolean newRegion = region;
+        if (newMode == CopyMode.NONE && !region) {
+            newMode = newMode.next();
+            newRegion = true;
+        } else if (newMode == CopyMode.NONE) {
+            newRegion = false;
+        }
+
+        tag.putInt("mode", newMode.id);
+        tag.putBoolean("region", newRegion);
+        tag.remove("regionStart");
 
-        final CopyMode newMode = mode.next();
-        tag.putString("mode", newMode.toString());
-        user.sendMessage(new TranslatableText("gui.framed.framers_hammer." + newMode.translationKey), true);
+        final TranslatableText modeText = new TranslatableText("gui.framed.framers_hammer." + newMode.translationKey);
+        user.sendMessage(newRegion ? new TranslatableText("gui.framed.framers_hammer.region", modeText) : modeText, true);
 
         return TypedActionResult.success(stack);
     }
@@ -0,0 +1,81 @@
+package dev.alexnader.framed.items;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which slots of a player's inventory hold which items, built in a single pass.
+ * Slots are re-checked when used, so the index stays correct if the inventory changes afterwards.
+ */
+public class PlayerInventoryIndex {
+    private final PlayerInventory inventory;
+    private final Map<Item, IntList> slotsByItem = new HashMap<>();
+
+    public PlayerInventoryIndex(final PlayerInventory inventory) {
+        this.inventory = inventory;
+
+        for (int i = 0, size = inventory.size(); i < size; i++) {
+            final ItemStack stack = inventory.getStack(i);
+            if (!stack.isEmpty()) {
+                slotsByItem.computeIfAbsent(stack.getItem(), item -> new IntArrayList()).add(i);
+            }
+        }
+    }
+
+    private int findSlot(final Item item) {
+        final IntList slots = slotsByItem.get(item);
+        if (slots == null) {
+            return -1;
+        }
+
+        while (!slots.isEmpty()) {
+            final int last = slots.size() - 1;
+            final int slot = slots.getInt(last);
+            final ItemStack stack = inventory.getStack(slot);
+            if (!stack.isEmpty() && stack.getItem() == item) {
+                return slot;
+            }
+            slots.removeInt(last);
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return how many of an item the inventory holds
+     */
+    public int count(final Item item) {
+        final IntList slots = slotsByItem.get(item);
+        if (slots == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int i = 0, size = slots.size(); i < size; i++) {
+            final ItemStack stack = inventory.getStack(slots.getInt(i));
+            if (stack.getItem() == item) {
+                count += stack.getCount();
+            }
+        }
+        return count;
+    }
+
+    public boolean contains(final Item item) {
+        return findSlot(item) != -1;
+    }
+
+    /**
+     * Removes a single item from the inventory.
+     * @return the removed item, or {@link ItemStack#EMPTY} if the inventory has none
+     */
+    public ItemStack take(final Item item) {
+        final int slot = findSlot(item);
+        return slot == -1 ? ItemStack.EMPTY : inventory.removeStack(slot, 1);
+    }
+}
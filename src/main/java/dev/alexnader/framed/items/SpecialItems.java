@@ -1,59 +1,86 @@
 package dev.alexnader.framed.items;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Streams;
-import com.mojang.datafixers.util.Pair;
+import com.google.common.collect.ImmutableMap;
 import dev.alexnader.framed.block.entity.FrameBlockEntity;
+import dev.alexnader.framed.block.frame.data.FrameData;
 import net.minecraft.item.Item;
 import net.minecraft.item.Items;
 import net.minecraft.state.property.BooleanProperty;
 import net.minecraft.state.property.Properties;
 import net.minecraft.world.World;
 
-import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
-
-import static dev.alexnader.framed.Framed.PROPERTIES;
 
 public class SpecialItems {
-    public static class SpecialItem {
+    public abstract static class SpecialItem {
         private final int offset;
-        private final BooleanProperty property;
 
-        public SpecialItem(final int offset, final BooleanProperty property) {
+        protected SpecialItem(final int offset) {
             this.offset = offset;
-            this.property = property;
         }
 
         public int offset() {
             return offset;
         }
 
+        public abstract void onAdd(final World world, final FrameBlockEntity frame);
+
+        public abstract void onRemove(final World world, final FrameBlockEntity frame);
+    }
+
+    /**
+     * A special item stored as a block state property, for things that have to be known without the block entity.
+     */
+    public static class StateSpecialItem extends SpecialItem {
+        private final BooleanProperty property;
+
+        public StateSpecialItem(final int offset, final BooleanProperty property) {
+            super(offset);
+            this.property = property;
+        }
+
+        @Override
+        public void onAdd(final World world, final FrameBlockEntity frame) {
+            frame.setStateProperty(property, true);
+        }
+
+        @Override
+        public void onRemove(final World world, final FrameBlockEntity frame) {
+            frame.setStateProperty(property, false);
+        }
+    }
+
+    public static class RedstoneSpecialItem extends SpecialItem {
+        public RedstoneSpecialItem(final int offset) {
+            super(offset);
+        }
+
+        private void set(final FrameBlockEntity frame, final boolean hasRedstone) {
+            if (frame.hasRedstone() != hasRedstone) {
+                frame.setHasRedstone(hasRedstone);
+                frame.updateNeighbors();
+            }
+        }
+
+        @Override
         public void onAdd(final World world, final FrameBlockEntity frame) {
-            world.setBlockState(frame.getPos(), world.getBlockState(frame.getPos()).with(property, true));
+            set(frame, true);
         }
 
+        @Override
         public void onRemove(final World world, final FrameBlockEntity frame) {
-            world.setBlockState(frame.getPos(), world.getBlockState(frame.getPos()).with(property, false));
+            set(frame, false);
         }
     }
 
-    public final Map<Item, SpecialItem> MAP;
-
-    public SpecialItems() {
-        final List<Pair<Item, BooleanProperty>> pairs = Lists.newArrayList(
-            Pair.of(Items.GLOWSTONE_DUST, Properties.LIT),
-            Pair.of(Items.REDSTONE, PROPERTIES.HAS_REDSTONE)
-        );
-
-        //noinspection UnstableApiUsage
-        MAP = Streams.zip(
-            IntStream.range(0, pairs.size()).boxed(),
-            pairs.stream(),
-            Pair::new
-        )
-            .map(pair -> new Pair<>(pair.getSecond().getFirst(), new SpecialItem(pair.getFirst(), pair.getSecond().getSecond())))
-            .collect(Pair.toMap());
+    public final RedstoneSpecialItem REDSTONE = new RedstoneSpecialItem(1);
+
+    public final Map<Item, SpecialItem> MAP = ImmutableMap.of(
+        Items.GLOWSTONE_DUST, new StateSpecialItem(0, Properties.LIT),
+        Items.REDSTONE, REDSTONE
+    );
+
+    public boolean containsRedstone(final FrameData data) {
+        return data.hasStack(data.sections().special().makeAbsolute(REDSTONE.offset()));
     }
 }
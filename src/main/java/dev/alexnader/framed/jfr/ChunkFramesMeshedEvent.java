@@ -0,0 +1,55 @@
+package dev.alexnader.framed.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Spans the meshing of one chunk section, and is only committed if the section contained frames.
+ */
+@Name("framed.ChunkFramesMeshed")
+@Label("Chunk Section With Frames Meshed")
+@Category({ "Framed", "Rendering" })
+public class ChunkFramesMeshedEvent extends Event {
+    private static final ThreadLocal<ChunkFramesMeshedEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("Section X")
+    public int sectionX;
+    @Label("Section Y")
+    public int sectionY;
+    @Label("Section Z")
+    public int sectionZ;
+    @Label("Frames")
+    public int frames;
+
+    public static void start() {
+        final ChunkFramesMeshedEvent event = new ChunkFramesMeshedEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            CURRENT.set(event);
+        }
+    }
+
+    public static void frameMeshed(final int x, final int y, final int z) {
+        final ChunkFramesMeshedEvent event = CURRENT.get();
+        if (event != null) {
+            if (event.frames == 0) {
+                event.sectionX = x >> 4;
+                event.sectionY = y >> 4;
+                event.sectionZ = z >> 4;
+            }
+            event.frames++;
+        }
+    }
+
+    public static void end() {
+        final ChunkFramesMeshedEvent event = CURRENT.get();
+        if (event != null) {
+            CURRENT.remove();
+            if (event.frames > 0) {
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dev.alexnader.framed.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("framed.FrameDataSerialize")
+@Label("Frame Data Serialized")
+@Category({ "Framed", "Data" })
+public class FrameDataSerializeEvent extends Event {
+    @Label("Reading")
+    public boolean reading;
+    @Label("Slots")
+    public int slots;
+    @Label("Occupied Slots")
+    public int occupiedSlots;
+}
@@ -0,0 +1,22 @@
+package dev.alexnader.framed.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("framed.FrameSync")
+@Label("Frame Synced")
+@Category({ "Framed", "Network" })
+public class FrameSyncEvent extends Event {
+    @Label("X")
+    public int x;
+    @Label("Y")
+    public int y;
+    @Label("Z")
+    public int z;
+    @Label("Block")
+    public String block;
+    @Label("Players")
+    public int players;
+}
@@ -0,0 +1,22 @@
+package dev.alexnader.framed.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("framed.FrameTransform")
+@Label("Frame Transform Created")
+@Category({ "Framed", "Rendering" })
+public class FrameTransformEvent extends Event {
+    @Label("X")
+    public int x;
+    @Label("Y")
+    public int y;
+    @Label("Z")
+    public int z;
+    @Label("Block")
+    public String block;
+    @Label("Attachment Size")
+    public int attachmentSize;
+}
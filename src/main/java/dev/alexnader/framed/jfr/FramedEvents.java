@@ -0,0 +1,22 @@
+package dev.alexnader.framed.jfr;
+
+/**
+ * Flight Recorder events are only used when the running JVM has Flight Recorder (Java 8u262 and later).
+ * Event classes must only be touched after checking {@link #AVAILABLE}, since loading them fails otherwise.
+ */
+public final class FramedEvents {
+    private FramedEvents() {
+        throw new IllegalStateException("Should not instantiate utility class.");
+    }
+
+    public static final boolean AVAILABLE = isAvailable();
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FramedEvents.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dev.alexnader.framed.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Spans a reload listener from the start of loading to the end of applying.
+ */
+@Name("framed.OverlayReload")
+@Label("Overlay Reload")
+@Category({ "Framed", "Resources" })
+public class OverlayReloadEvent extends Event {
+    @Label("Listener")
+    public String listener;
+    @Label("Files")
+    public int files;
+    @Label("Overlays")
+    public int overlays;
+}
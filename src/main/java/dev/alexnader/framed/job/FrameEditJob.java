@@ -0,0 +1,127 @@
+package dev.alexnader.framed.job;
+
+import dev.alexnader.framed.block.entity.FrameBlockEntity;
+import dev.alexnader.framed.block.entity.FrameIndex;
+import dev.alexnader.framed.network.FrameBatchSync;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.TranslatableText;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static dev.alexnader.framed.Framed.FRAME_INDEX;
+
+/**
+ * Edits the {@link dev.alexnader.framed.block.frame.data.FrameData} of every frame in a region, one chunk at a time.
+ * Frames are changed without {@link FrameBlockEntity#markDirty}; instead each chunk is saved and synced once.
+ */
+public class FrameEditJob implements FrameJob {
+    public interface Edit {
+        /**
+         * Changes a frame's data in place.
+         * @return whether anything changed
+         */
+        boolean apply(FrameBlockEntity frame);
+    }
+
+    private static final int TICKS_PER_REPORT = 40;
+
+    private final ServerCommandSource source;
+    private final ServerWorld world;
+    private final BlockBox box;
+    private final Predicate<FrameBlockEntity> filter;
+    private final Edit edit;
+
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int chunksX;
+    private final int chunkCount;
+
+    private final List<FrameBlockEntity> changed = new ArrayList<>();
+
+    private int cursor = 0;
+    private int edited = 0;
+    private int unloaded = 0;
+    private int ticksSinceReport = 0;
+
+    /**
+     * @param filter which frames to edit, such as {@link FrameIndex#withBase}; checked before {@code edit}
+     */
+    public FrameEditJob(final ServerCommandSource source, final ServerWorld world, final BlockBox box, final Predicate<FrameBlockEntity> filter, final Edit edit) {
+        this.source = source;
+        this.world = world;
+        this.box = box;
+        this.filter = filter;
+        this.edit = edit;
+
+        minChunkX = box.minX >> 4;
+        minChunkZ = box.minZ >> 4;
+        chunksX = (box.maxX >> 4) - minChunkX + 1;
+        chunkCount = chunkCount(box);
+    }
+
+    public static int chunkCount(final BlockBox box) {
+        return ((box.maxX >> 4) - (box.minX >> 4) + 1) * ((box.maxZ >> 4) - (box.minZ >> 4) + 1);
+    }
+
+    @Override
+    public boolean tick(final MinecraftServer server, final long deadline) {
+        while (cursor < chunkCount) {
+            final int chunkX = minChunkX + cursor % chunksX;
+            final int chunkZ = minChunkZ + cursor / chunksX;
+            cursor++;
+
+            final @Nullable WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+            if (chunk == null) {
+                unloaded++;
+                continue;
+            }
+
+            editChunk(chunk);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        if (cursor >= chunkCount) {
+            source.sendFeedback(new TranslatableText("commands.framed.edit.done", edited, chunkCount - unloaded, unloaded), true);
+            return true;
+        }
+
+        ticksSinceReport++;
+        if (ticksSinceReport >= TICKS_PER_REPORT) {
+            ticksSinceReport = 0;
+            source.sendFeedback(new TranslatableText("commands.framed.edit.progress", cursor, chunkCount, edited), false);
+        }
+
+        return false;
+    }
+
+    private void editChunk(final WorldChunk chunk) {
+        changed.clear();
+
+        final ChunkPos chunkPos = chunk.getPos();
+        final BlockBox chunkBox = new BlockBox(
+            Math.max(box.minX, chunkPos.getStartX()), box.minY, Math.max(box.minZ, chunkPos.getStartZ()),
+            Math.min(box.maxX, chunkPos.getEndX()), box.maxY, Math.min(box.maxZ, chunkPos.getEndZ())
+        );
+        for (final FrameBlockEntity frame : FRAME_INDEX.query(world, chunkBox, filter)) {
+            if (!frame.isRemoved() && edit.apply(frame)) {
+                changed.add(frame);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            edited += changed.size();
+            chunk.setShouldSave(true);
+            FrameBatchSync.send(world, chunkPos, changed);
+        }
+    }
+}
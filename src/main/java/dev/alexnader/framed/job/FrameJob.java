@@ -0,0 +1,20 @@
+package dev.alexnader.framed.job;
+
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Work on frames which is spread over several server ticks.
+ */
+public interface FrameJob {
+    /**
+     * Does some work, stopping once {@link System#nanoTime} passes {@code deadline}. At least one unit of work should
+     * be done regardless, so that the job still progresses when others have used up the tick's budget.
+     * @return whether the job has finished
+     */
+    boolean tick(MinecraftServer server, long deadline);
+
+    /**
+     * Called instead of {@link #tick} if the job is dropped before it finishes, e.g. when the server stops.
+     */
+    default void cancel() { }
+}
@@ -0,0 +1,47 @@
+package dev.alexnader.framed.job;
+
+import net.minecraft.server.MinecraftServer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static dev.alexnader.framed.Framed.META;
+
+public class FrameJobs {
+    // shared by all jobs, so running several at once doesn't lengthen the tick any further
+    private static final long NANOS_PER_TICK = 5_000_000L;
+
+    private final Deque<FrameJob> jobs = new ArrayDeque<>();
+
+    public void add(final FrameJob job) {
+        jobs.add(job);
+    }
+
+    public void tick(final MinecraftServer server) {
+        final long deadline = System.nanoTime() + NANOS_PER_TICK;
+
+        // ticked jobs go to the back of the queue, so when the budget runs out the ones that missed out go first next tick
+        for (int remaining = jobs.size(); remaining > 0 && System.nanoTime() < deadline; remaining--) {
+            final FrameJob job = jobs.poll();
+
+            boolean finished;
+            try {
+                finished = job.tick(server, deadline);
+            } catch (final RuntimeException e) {
+                META.LOGGER.error("Frame job failed, cancelling it.", e);
+                finished = true;
+            }
+
+            if (!finished) {
+                jobs.add(job);
+            }
+        }
+    }
+
+    public void cancelAll() {
+        for (final FrameJob job : jobs) {
+            job.cancel();
+        }
+        jobs.clear();
+    }
+}
@@ -0,0 +1,124 @@
+package dev.alexnader.framed.job;
+
+import dev.alexnader.framed.block.FrameSlotInfo;
+import dev.alexnader.framed.block.entity.FrameBlockEntity;
+import dev.alexnader.framed.items.FramersHammer;
+import dev.alexnader.framed.items.PlayerInventoryIndex;
+import dev.alexnader.framed.network.FrameBatchSync;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.TranslatableText;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static dev.alexnader.framed.Framed.FRAME_INDEX;
+
+/**
+ * Applies a Framer's Hammer's stored settings to every compatible frame in a region, spread over several ticks.
+ * The frames are found through the {@link dev.alexnader.framed.block.entity.FrameIndex} when the job starts, so only
+ * frames loaded at that point are changed. Frames changed in a tick are synced together, once per chunk.
+ */
+public class HammerApplyJob implements FrameJob {
+    public static final long MAX_VOLUME = 1 << 20;
+
+    private final ServerWorld world;
+    private final UUID playerId;
+    private final FramersHammer.Data data;
+    private final BlockBox box;
+    private final long volume;
+
+    private @Nullable List<FrameBlockEntity> frames;
+    // frames changed this tick, by chunk
+    private final Long2ObjectMap<List<FrameBlockEntity>> changed = new Long2ObjectOpenHashMap<>();
+    private int cursor = 0;
+    private int applied = 0;
+
+    public HammerApplyJob(final ServerWorld world, final ServerPlayerEntity player, final FramersHammer.Data data, final BlockPos corner1, final BlockPos corner2) {
+        this.world = world;
+        this.playerId = player.getUuid();
+        this.data = data;
+
+        box = new BlockBox(corner1, corner2);
+        volume = (long) box.getBlockCountX() * box.getBlockCountY() * box.getBlockCountZ();
+    }
+
+    public long volume() {
+        return volume;
+    }
+
+    @Override
+    public boolean tick(final MinecraftServer server, final long deadline) {
+        final @Nullable ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerId);
+        if (player == null || player.world != world) {
+            return true;
+        }
+
+        List<FrameBlockEntity> frames = this.frames;
+        if (frames == null) {
+            frames = this.frames = FRAME_INDEX.query(world, box, data::isCompatibleWith);
+        }
+
+        // indexed once per tick rather than once per frame; the player may have respawned, changed game mode
+        // or picked up items since the last tick
+        final @Nullable PlayerInventoryIndex inventory = player.isCreative() ? null : new PlayerInventoryIndex(player.inventory);
+
+        while (cursor < frames.size()) {
+            final FrameBlockEntity frame = frames.get(cursor++);
+            // the frame may have been broken or replaced since the job started
+            if (frame.isRemoved() || world.getBlockEntity(frame.getPos()) != frame || !data.isCompatibleWith(frame)) {
+                continue;
+            }
+
+            final BlockState state = world.getBlockState(frame.getPos());
+            if (!(state.getBlock() instanceof FrameSlotInfo)) {
+                continue;
+            }
+
+            boolean dirty;
+            frame.beginBatch();
+            try {
+                if (data.applyTo((FrameSlotInfo) state.getBlock(), state, frame, player, world, inventory)) {
+                    applied++;
+                }
+            } finally {
+                dirty = frame.endBatchWithoutSync();
+            }
+
+            if (dirty) {
+                changed.computeIfAbsent(ChunkPos.toLong(frame.getPos().getX() >> 4, frame.getPos().getZ() >> 4), chunk -> new ArrayList<>()).add(frame);
+            }
+
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        syncChanged();
+
+        if (cursor < frames.size()) {
+            return false;
+        }
+
+        player.sendMessage(new TranslatableText("gui.framed.framers_hammer.region_done", applied), true);
+        return true;
+    }
+
+    private void syncChanged() {
+        for (final Long2ObjectMap.Entry<List<FrameBlockEntity>> entry : changed.long2ObjectEntrySet()) {
+            final ChunkPos chunkPos = new ChunkPos(entry.getLongKey());
+            world.getChunk(chunkPos.x, chunkPos.z).setShouldSave(true);
+            FrameBatchSync.send(world, chunkPos, entry.getValue());
+        }
+        changed.clear();
+    }
+}
@@ -1,6 +1,5 @@
 package dev.alexnader.framed.mixin.local;
 
-import com.mojang.datafixers.util.Function3;
 import com.mojang.datafixers.util.Unit;
 import dev.alexnader.framed.block.FrameSlotInfo;
 import dev.alexnader.framed.block.entity.FrameBlockEntity;
@@ -40,7 +39,8 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.*;
+import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 import static dev.alexnader.framed.Framed.*;
@@ -74,7 +74,6 @@ public abstract class FrameBehaviour extends Block implements BlockEntityProvide
     void setFramePropertiesDefaultState(CallbackInfo ci) {
         setDefaultState(getDefaultState()
             .with(Properties.LIT, false)
-            .with(PROPERTIES.HAS_REDSTONE, false)
         );
     }
 
@@ -84,19 +83,22 @@ public abstract class FrameBehaviour extends Block implements BlockEntityProvide
     @Override
     public void appendProperties(final StateManager.Builder<Block, BlockState> builder) {
         super.appendProperties(builder);
-        builder.add(Properties.LIT, PROPERTIES.HAS_REDSTONE);
+        builder.add(Properties.LIT);
     }
 
+    // redstone is kept on the block entity rather than the state, so any frame could be emitting power;
+    // reporting every frame lets dust connect to them, and getWeakRedstonePower decides the actual power
     @SuppressWarnings("deprecation")
     @Override
     public boolean emitsRedstonePower(final BlockState state) {
-        return super.emitsRedstonePower(state) || state.get(PROPERTIES.HAS_REDSTONE);
+        return true;
     }
 
     @SuppressWarnings("deprecation")
     @Override
     public int getWeakRedstonePower(final BlockState state, final BlockView world, final BlockPos pos, final Direction direction) {
-        if (state.get(PROPERTIES.HAS_REDSTONE)) {
+        final @Nullable BlockEntity blockEntity = world.getBlockEntity(pos);
+        if (blockEntity instanceof FrameBlockEntity && ((FrameBlockEntity) blockEntity).hasRedstone()) {
             return 15 - super.getWeakRedstonePower(state, world, pos, direction);
         } else {
             return super.getWeakRedstonePower(state, world, pos, direction);
@@ -124,8 +126,7 @@ public abstract class FrameBehaviour extends Block implements BlockEntityProvide
         return (NamedScreenHandlerFactory) world.getBlockEntity(pos);
     }
 
-    private void removeStack(final World world, final FrameBlockEntity from, final PlayerEntity to, final int slot, final boolean giveItem) {
-        final ItemStack stack = from.removeStack(slot);
+    private void giveStack(final World world, final FrameBlockEntity from, final PlayerEntity to, final ItemStack stack, final boolean giveItem) {
         if (!stack.isEmpty() && giveItem) {
             to.inventory.offerOrDrop(world, stack);
 
@@ -137,19 +138,11 @@ public abstract class FrameBehaviour extends Block implements BlockEntityProvide
         world.setBlockState(frame.getPos(), state);
 
         if (player.isSneaking()) {
-            for (final int i : frame.sections().itemIndices()) {
-                removeStack(world, frame, player, i, giveItem);
-            }
+            frame.removeAllStacks(stack -> giveStack(world, frame, player, stack, giveItem));
         } else {
-            int slot = -1;
-            for (int i = frame.size() - 1; i >= 0; i--) {
-                if (frame.items()[i].isPresent()) {
-                    slot = i;
-                    break;
-                }
-            }
+            final int slot = frame.data().lastOccupiedSlot();
             if (slot != -1) {
-                removeStack(world, frame, player, slot, giveItem);
+                giveStack(world, frame, player, frame.removeStack(slot), giveItem);
             }
         }
     }
@@ -227,15 +220,17 @@ public abstract class FrameBehaviour extends Block implements BlockEntityProvide
             final Vec3d posInBlock = hit.getPos().subtract(Vec3d.of(hit.getBlockPos()));
             final int relativeSlot = getRelativeSlotAt(posInBlock, hit.getSide());
 
-            final Function3<List<Optional<ItemStack>>, Integer, Supplier<Unit>, ActionResult> swapItems = (slots, absoluteSlot, onSuccess) -> {
-                final Optional<ItemStack> maybeStack = slots.get(relativeSlot);
-                if (playerStack.getItem() != maybeStack.orElse(ItemStack.EMPTY).getItem()) {
+            final BiFunction<Integer, Supplier<Unit>, ActionResult> swapItems = (absoluteSlot, onSuccess) -> {
+                final ItemStack existingStack = frame.getStack(absoluteSlot);
+                if (playerStack.getItem() != existingStack.getItem()) {
                     if (!world.isClient) {
-                        if (!player.isCreative() && maybeStack.isPresent()) {
-                            player.inventory.offerOrDrop(world, maybeStack.get());
+                        if (!player.isCreative() && !existingStack.isEmpty()) {
+                            player.inventory.offerOrDrop(world, existingStack);
                         }
-                        frame.copyFrom(absoluteSlot, playerStack, 1, !player.isCreative());
-                        onSuccess.get();
+                        frame.edit(f -> {
+                            f.copyFrom(absoluteSlot, playerStack, 1, !player.isCreative());
+                            onSuccess.get();
+                        });
                     }
                     return ActionResult.SUCCESS;
                 } else {
@@ -247,14 +242,14 @@ public abstract class FrameBehaviour extends Block implements BlockEntityProvide
 
             if (query.isValidForOverlay()) {
                 final int absoluteSlot = frame.sections().overlay().makeAbsolute(relativeSlot);
-                return swapItems.apply(frame.overlayItems(), absoluteSlot, () -> Unit.INSTANCE);
+                return swapItems.apply(absoluteSlot, () -> Unit.INSTANCE);
             }
 
             final Optional<BlockState> maybeBaseState = query.isValidForBase(i -> Optional.ofNullable(i.getBlock().getPlacementState(new ItemPlacementContext(new ItemUsageContext(player, hand, hit)))), world, pos);
             if (maybeBaseState.isPresent()) {
                 final int absoluteSlot = frame.sections().base().makeAbsolute(relativeSlot);
-                return swapItems.apply(frame.baseItems(), absoluteSlot, () -> {
-                    frame.baseStates()[relativeSlot] = maybeBaseState;
+                return swapItems.apply(absoluteSlot, () -> {
+                    frame.setBaseState(relativeSlot, maybeBaseState.get());
                     return Unit.INSTANCE;
                 });
             }
@@ -265,8 +260,8 @@ public abstract class FrameBehaviour extends Block implements BlockEntityProvide
 
                 if (frame.getStack(slot).isEmpty()) {
                     if (!world.isClient) {
+                        // setStack runs the special item's onAdd
                         frame.copyFrom(slot, playerStack, 1, !player.isCreative());
-                        specialItem.onAdd(world, frame);
                     }
                     return ActionResult.SUCCESS;
                 } else {
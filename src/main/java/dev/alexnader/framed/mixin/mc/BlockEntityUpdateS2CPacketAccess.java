@@ -0,0 +1,13 @@
+package dev.alexnader.framed.mixin.mc;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(BlockEntityUpdateS2CPacket.class)
+public interface BlockEntityUpdateS2CPacketAccess {
+    // the getter is client only
+    @Accessor("tag")
+    CompoundTag tag();
+}
@@ -0,0 +1,31 @@
+package dev.alexnader.framed.mixin.mc;
+
+import dev.alexnader.framed.jfr.ChunkFramesMeshedEvent;
+import dev.alexnader.framed.jfr.FramedEvents;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.Set;
+
+// not required, since other renderers may replace vanilla chunk meshing
+@Environment(EnvType.CLIENT)
+@Mixin(targets = "net.minecraft.client.render.chunk.ChunkBuilder$BuiltChunk$RebuildTask")
+public abstract class ChunkRebuildTaskMixin {
+    @Inject(method = "render", at = @At("HEAD"), require = 0)
+    void beginFramesMeshed(final CallbackInfoReturnable<Set<?>> cir) {
+        if (FramedEvents.AVAILABLE) {
+            ChunkFramesMeshedEvent.start();
+        }
+    }
+
+    @Inject(method = "render", at = @At("RETURN"), require = 0)
+    void endFramesMeshed(final CallbackInfoReturnable<Set<?>> cir) {
+        if (FramedEvents.AVAILABLE) {
+            ChunkFramesMeshedEvent.end();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.alexnader.framed.mixin.mc;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.ChunkSerializer;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import static dev.alexnader.framed.Framed.FRAME_STATS;
+
+@Mixin(ChunkSerializer.class)
+public class ChunkSerializerMixin {
+    @Inject(method = "serialize", at = @At("RETURN"))
+    private static void recordFrameSave(final ServerWorld world, final Chunk chunk, final CallbackInfoReturnable<CompoundTag> cir) {
+        FRAME_STATS.recordChunkSave(world, cir.getReturnValue());
+    }
+}
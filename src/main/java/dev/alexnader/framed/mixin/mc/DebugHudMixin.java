@@ -0,0 +1,24 @@
+package dev.alexnader.framed.mixin.mc;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.gui.hud.DebugHud;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+import static dev.alexnader.framed.client.FramedClient.METRICS;
+
+@Environment(EnvType.CLIENT)
+@Mixin(DebugHud.class)
+public abstract class DebugHudMixin {
+    @Inject(method = "getRightText", at = @At("RETURN"))
+    void addFrameMetrics(final CallbackInfoReturnable<List<String>> cir) {
+        final List<String> lines = cir.getReturnValue();
+        lines.add("");
+        lines.addAll(METRICS.debugLines());
+    }
+}
@@ -0,0 +1,20 @@
+package dev.alexnader.framed.mixin.mc;
+
+import dev.alexnader.framed.util.ShapeInterner;
+import net.minecraft.block.HorizontalConnectingBlock;
+import net.minecraft.util.shape.VoxelShape;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(HorizontalConnectingBlock.class)
+public class HorizontalConnectingBlockMixin {
+    @Inject(method = "createShapes", at = @At("RETURN"))
+    void internShapes(final float radius1, final float radius2, final float height1, final float offset2, final float height2, final CallbackInfoReturnable<VoxelShape[]> cir) {
+        final VoxelShape[] shapes = cir.getReturnValue();
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i] = ShapeInterner.intern(shapes[i]);
+        }
+    }
+}
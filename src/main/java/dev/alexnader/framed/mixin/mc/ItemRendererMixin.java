@@ -5,7 +5,6 @@ import net.fabricmc.api.Environment;
 import net.minecraft.client.render.item.ItemModels;
 import net.minecraft.client.render.item.ItemRenderer;
 import net.minecraft.client.render.model.BakedModel;
-import net.minecraft.client.util.ModelIdentifier;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.item.ItemStack;
@@ -17,7 +16,7 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Redirect;
 
 import static dev.alexnader.framed.Framed.ITEMS;
-import static dev.alexnader.framed.Framed.META;
+import static dev.alexnader.framed.client.FramedClient.HAMMER_MODELS;
 
 @Environment(EnvType.CLIENT)
 @Mixin(ItemRenderer.class)
@@ -31,7 +30,7 @@ public abstract class ItemRendererMixin {
     @Redirect(method = "getHeldItemModel", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/render/item/ItemModels;getModel(Lnet/minecraft/item/ItemStack;)Lnet/minecraft/client/render/model/BakedModel;"))
     BakedModel getModelProxy(final ItemModels itemModels, final ItemStack stack) {
         if (stack.getItem() == ITEMS.FRAMERS_HAMMER) {
-            return itemModels.getModelManager().getModel(new ModelIdentifier(META.id("framers_hammer_none"), "inventory"));
+            return HAMMER_MODELS.hammerNone(itemModels.getModelManager());
         }
         return itemModels.getModel(stack);
     }
@@ -40,7 +39,7 @@ public abstract class ItemRendererMixin {
     BakedModel getHeldItemModelProxy(final ItemRenderer itemRenderer, final ItemStack stack, final World world, final LivingEntity entity) {
         if (stack.getItem() == ITEMS.FRAMERS_HAMMER) {
             final ClientWorld clientWorld = world instanceof ClientWorld ? (ClientWorld) world : null;
-            final BakedModel model = models.getModelManager().getModel(new ModelIdentifier(META.id("framers_hammer"), "inventory"));
+            final BakedModel model = HAMMER_MODELS.hammer(models.getModelManager());
             final BakedModel model2 = model.getOverrides().apply(model, stack, clientWorld, entity);
             return model2 == null ? models.getModelManager().getMissingModel() : model2;
         }
@@ -1,6 +1,9 @@
 package dev.alexnader.framed.mixin.mc;
 
 import com.google.common.collect.ImmutableMap;
+import dev.alexnader.framed.util.ShapeInterner;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.WallBlock;
@@ -61,6 +64,8 @@ public class WallBlockMixin extends Block {
         VoxelShape voxelShape8 = Block.createCuboidShape(0.0D, i, n, o, k, o);
         VoxelShape voxelShape9 = Block.createCuboidShape(n, i, n, 16.0D, k, o);
         ImmutableMap.Builder<BlockState, VoxelShape> builder = ImmutableMap.builder();
+        // states that only differ in properties other than these share a shape
+        Int2ObjectMap<VoxelShape> byGeometry = new Int2ObjectOpenHashMap<>();
 
         for (BlockState state : stateManager.getStates()) {
             Boolean boolean_ = state.get(UP);
@@ -69,6 +74,17 @@ public class WallBlockMixin extends Block {
             WallShape wallShape3 = state.get(WEST_SHAPE);
             WallShape wallShape4 = state.get(SOUTH_SHAPE);
 
+            int geometry = (Boolean.TRUE.equals(boolean_) ? 1 : 0)
+                | wallShape.ordinal() << 1
+                | wallShape2.ordinal() << 3
+                | wallShape3.ordinal() << 5
+                | wallShape4.ordinal() << 7;
+            VoxelShape cached = byGeometry.get(geometry);
+            if (cached != null) {
+                builder.put(state, cached);
+                continue;
+            }
+
             VoxelShape voxelShape10 = VoxelShapes.empty();
             voxelShape10 = method_24426(voxelShape10, wallShape, voxelShape5, voxelShape9);
             voxelShape10 = method_24426(voxelShape10, wallShape3, voxelShape4, voxelShape8);
@@ -78,6 +94,8 @@ public class WallBlockMixin extends Block {
                 voxelShape10 = VoxelShapes.union(voxelShape10, voxelShape);
             }
 
+            voxelShape10 = ShapeInterner.intern(voxelShape10);
+            byGeometry.put(geometry, voxelShape10);
             builder.put(state, voxelShape10);
         }
         return builder.build();
@@ -0,0 +1,68 @@
+package dev.alexnader.framed.network;
+
+import dev.alexnader.framed.block.entity.FrameBlockEntity;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Collection;
+import java.util.List;
+
+import static dev.alexnader.framed.Framed.FRAME_STATS;
+import static dev.alexnader.framed.Framed.META;
+
+/**
+ * Syncs many frames in one chunk with as few packets as possible.
+ * Each entry is preceded by {@code true}, and the packet ends with {@code false}.
+ */
+public class FrameBatchSync {
+    private FrameBatchSync() {
+        throw new IllegalStateException("Should not instantiate utility class.");
+    }
+
+    public static final Identifier ID = META.id("frame_batch_sync");
+
+    // well below the vanilla limit for custom payloads
+    private static final int MAX_PACKET_BYTES = 512 * 1024;
+
+    public static void send(final ServerWorld world, final ChunkPos chunkPos, final List<FrameBlockEntity> frames) {
+        final Collection<ServerPlayerEntity> players = PlayerLookup.tracking(world, chunkPos);
+        if (players.isEmpty() || frames.isEmpty()) {
+            return;
+        }
+
+        PacketByteBuf buf = PacketByteBufs.create();
+        for (final FrameBlockEntity frame : frames) {
+            buf.writeBoolean(true);
+            buf.writeBlockPos(frame.getPos());
+            buf.writeCompoundTag(frame.toClientTag(new CompoundTag()));
+
+            if (buf.writerIndex() >= MAX_PACKET_BYTES) {
+                buf.writeBoolean(false);
+                sendToAll(world, players, buf);
+                buf = PacketByteBufs.create();
+            }
+        }
+
+        if (buf.writerIndex() > 0) {
+            buf.writeBoolean(false);
+            sendToAll(world, players, buf);
+        }
+    }
+
+    private static void sendToAll(final ServerWorld world, final Collection<ServerPlayerEntity> players, final PacketByteBuf buf) {
+        FRAME_STATS.recordSync(world, players.size(), (long) players.size() * buf.writerIndex());
+
+        final Packet<?> packet = ServerPlayNetworking.createS2CPacket(ID, buf);
+        for (final ServerPlayerEntity player : players) {
+            player.networkHandler.sendPacket(packet);
+        }
+    }
+}
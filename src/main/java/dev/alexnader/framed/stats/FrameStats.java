@@ -0,0 +1,181 @@
+package dev.alexnader.framed.stats;
+
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static dev.alexnader.framed.Framed.BLOCK_ENTITY_TYPES;
+
+/**
+ * Accounts for the NBT written when frames are saved and the packets sent when they are synced, per world.
+ * Nothing is measured until {@code /framed stats} is used, after which measuring continues for {@link #MEASURE_TICKS}.
+ * Only the server thread may use this.
+ */
+public class FrameStats {
+    private static final int WINDOW_SECONDS = 10;
+    private static final int TICKS_PER_SECOND = 20;
+    // saves further apart than this are counted as separate saves
+    private static final long SAVE_GAP_TICKS = 20;
+    // long enough to see at least one autosave
+    private static final long MEASURE_TICKS = 10 * 60 * TICKS_PER_SECOND;
+
+    public static class WorldStats {
+        private final long[] packets = new long[WINDOW_SECONDS];
+        private final long[] bytes = new long[WINDOW_SECONDS];
+        private int second = 0;
+
+        private long currentSaveBytes = 0;
+        private long lastSaveBytes = 0;
+        private long lastSaveTick = Long.MIN_VALUE;
+
+        private void roll() {
+            second = (second + 1) % WINDOW_SECONDS;
+            packets[second] = 0;
+            bytes[second] = 0;
+        }
+
+        private void recordSync(final int packets, final long bytes) {
+            this.packets[second] += packets;
+            this.bytes[second] += bytes;
+        }
+
+        private void recordSave(final long tick, final long bytes) {
+            if (tick - lastSaveTick > SAVE_GAP_TICKS) {
+                currentSaveBytes = 0;
+            }
+            lastSaveTick = tick;
+            currentSaveBytes += bytes;
+            lastSaveBytes = currentSaveBytes;
+        }
+
+        private static double perSecond(final long[] window) {
+            long sum = 0;
+            for (final long value : window) {
+                sum += value;
+            }
+            return (double) sum / WINDOW_SECONDS;
+        }
+
+        public double packetsPerSecond() {
+            return perSecond(packets);
+        }
+
+        public double bytesPerSecond() {
+            return perSecond(bytes);
+        }
+
+        /**
+         * @return the bytes of frame NBT written by the most recent save of this world
+         */
+        public long lastSaveBytes() {
+            return lastSaveBytes;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count = 0;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+
+    private final Map<ServerWorld, WorldStats> worlds = new IdentityHashMap<>();
+    private int ticks = 0;
+    private long serverTicks = 0;
+    private long measureUntil = Long.MIN_VALUE;
+
+    public WorldStats get(final ServerWorld world) {
+        return worlds.computeIfAbsent(world, w -> new WorldStats());
+    }
+
+    public void tick(final MinecraftServer server) {
+        serverTicks++;
+        ticks++;
+        if (ticks >= TICKS_PER_SECOND) {
+            ticks = 0;
+            for (final WorldStats stats : worlds.values()) {
+                stats.roll();
+            }
+        }
+    }
+
+    public void clear() {
+        worlds.clear();
+        ticks = 0;
+        serverTicks = 0;
+        measureUntil = Long.MIN_VALUE;
+    }
+
+    /**
+     * Starts measuring, or keeps measuring if already started.
+     * @return whether measuring was already in progress, so that the current numbers mean something
+     */
+    public boolean measure() {
+        final boolean wasMeasuring = measuring();
+        measureUntil = serverTicks + MEASURE_TICKS;
+        return wasMeasuring;
+    }
+
+    public boolean measuring() {
+        return serverTicks < measureUntil;
+    }
+
+    public void recordSync(final ServerWorld world, final int packets, final long bytes) {
+        if (measuring()) {
+            get(world).recordSync(packets, bytes);
+        }
+    }
+
+    /**
+     * Records the frames in a chunk that is being written to disk.
+     */
+    public void recordChunkSave(final ServerWorld world, final CompoundTag chunkTag) {
+        if (!measuring()) {
+            return;
+        }
+
+        final String frameId = String.valueOf(BlockEntityType.getId(BLOCK_ENTITY_TYPES.FRAME));
+        final String slabFrameId = String.valueOf(BlockEntityType.getId(BLOCK_ENTITY_TYPES.SLAB_FRAME));
+
+        long bytes = 0;
+        final ListTag blockEntities = chunkTag.getCompound("Level").getList("TileEntities", 10);
+        for (int i = 0, size = blockEntities.size(); i < size; i++) {
+            final CompoundTag blockEntity = blockEntities.getCompound(i);
+            final String id = blockEntity.getString("id");
+            if (id.equals(frameId) || id.equals(slabFrameId)) {
+                bytes += sizeOf(blockEntity.getCompound("frameData"));
+            }
+        }
+
+        if (bytes > 0) {
+            get(world).recordSave(world.getTime(), bytes);
+        }
+    }
+
+    public static long sizeOf(final CompoundTag tag) {
+        final CountingOutputStream counter = new CountingOutputStream();
+        try {
+            NbtIo.write(tag, new DataOutputStream(counter));
+        } catch (final IOException e) {
+            // CountingOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+        return counter.count;
+    }
+}
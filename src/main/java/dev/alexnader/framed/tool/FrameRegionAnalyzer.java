@@ -0,0 +1,311 @@
+package dev.alexnader.framed.tool;
+
+import dev.alexnader.framed.block.frame.data.FrameData;
+import dev.alexnader.framed.stats.FrameStats;
+import dev.alexnader.framed.util.Section;
+import net.minecraft.Bootstrap;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Scans the region files of a world for frames without starting the game, and reports what they contain.
+ * Run with the world directory as the first argument, optionally followed by {@code --threads <n>} and
+ * {@code --top <n>}; the {@code analyzeRegions} Gradle task runs it with the mod's classpath.
+ * <p>
+ * Frames are decoded with {@link FrameData#fromTag}. Only vanilla blocks and items are registered here, so base states
+ * of modded blocks are counted as unresolved, and overlay items are reported by their saved id.
+ */
+public class FrameRegionAnalyzer {
+    private static final int SECTOR_BYTES = 4096;
+    private static final int CHUNKS_PER_REGION = 1024;
+
+    private static final byte GZIP = 1;
+    private static final byte ZLIB = 2;
+    private static final byte UNCOMPRESSED = 3;
+    private static final int EXTERNAL_FLAG = 0x80;
+
+    private static final Set<String> FRAME_IDS = new HashSet<>(Arrays.asList("framed:frame", "framed:slab_frame"));
+
+    private static class Stats {
+        public long regionFiles;
+        public long chunks;
+        public long externalChunks;
+        public long malformedChunks;
+        public long frames;
+        public long malformedFrames;
+        public long frameNbtBytes;
+        public long occupiedSlots;
+        public long unresolvedBaseStates;
+        public final Map<String, Long> framesByType = new HashMap<>();
+        public final Map<String, Long> baseStates = new HashMap<>();
+        public final Map<String, Long> overlayItems = new HashMap<>();
+
+        public void add(final Stats other) {
+            regionFiles += other.regionFiles;
+            chunks += other.chunks;
+            externalChunks += other.externalChunks;
+            malformedChunks += other.malformedChunks;
+            frames += other.frames;
+            malformedFrames += other.malformedFrames;
+            frameNbtBytes += other.frameNbtBytes;
+            occupiedSlots += other.occupiedSlots;
+            unresolvedBaseStates += other.unresolvedBaseStates;
+            other.framesByType.forEach((k, v) -> framesByType.merge(k, v, Long::sum));
+            other.baseStates.forEach((k, v) -> baseStates.merge(k, v, Long::sum));
+            other.overlayItems.forEach((k, v) -> overlayItems.merge(k, v, Long::sum));
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: FrameRegionAnalyzer <world directory> [--threads <n>] [--top <n>]");
+            System.exit(1);
+        }
+
+        final Path world = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int top = 20;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--threads":
+                threads = Integer.parseInt(args[i + 1]);
+                break;
+            case "--top":
+                top = Integer.parseInt(args[i + 1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        // registers vanilla blocks and items, which decoding base states and stacks needs
+        Bootstrap.initialize();
+
+        final List<Path> regionFiles;
+        try (Stream<Path> paths = Files.walk(world)) {
+            regionFiles = paths
+                .filter(p -> p.getFileName().toString().endsWith(".mca"))
+                .filter(p -> p.getParent() != null && "region".equals(p.getParent().getFileName().toString()))
+                .collect(Collectors.toList());
+        }
+
+        final long start = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final Stats total = new Stats();
+        try {
+            final List<Future<Stats>> results = new ArrayList<>(regionFiles.size());
+            for (final Path file : regionFiles) {
+                results.add(executor.submit(() -> scanRegion(file)));
+            }
+            for (final Future<Stats> result : results) {
+                total.add(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        report(total, top, System.nanoTime() - start, threads);
+    }
+
+    private static Stats scanRegion(final Path file) throws IOException {
+        final Stats stats = new Stats();
+        stats.regionFiles++;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < 2 * SECTOR_BYTES) {
+                return stats;
+            }
+            final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            for (int i = 0; i < CHUNKS_PER_REGION; i++) {
+                final int location = region.getInt(i * 4);
+                if (location == 0) {
+                    continue;
+                }
+                stats.chunks++;
+
+                final long offset = (long) (location >>> 8) * SECTOR_BYTES;
+                if (offset + 5 > size) {
+                    stats.malformedChunks++;
+                    continue;
+                }
+
+                final int length = region.getInt((int) offset);
+                final int compression = region.get((int) offset + 4) & 0xFF;
+                if ((compression & EXTERNAL_FLAG) != 0) {
+                    // stored in a separate .mcc file
+                    stats.externalChunks++;
+                    continue;
+                }
+                if (length <= 1 || offset + 4 + length > size) {
+                    stats.malformedChunks++;
+                    continue;
+                }
+
+                final ByteBuffer data = region.duplicate();
+                data.position((int) offset + 5);
+                data.limit((int) offset + 4 + length);
+
+                final @Nullable CompoundTag chunk;
+                try {
+                    chunk = readChunk(data, (byte) compression);
+                } catch (final IOException | RuntimeException e) {
+                    stats.malformedChunks++;
+                    continue;
+                }
+                if (chunk == null) {
+                    stats.malformedChunks++;
+                    continue;
+                }
+
+                scanChunk(chunk, stats);
+            }
+        }
+
+        return stats;
+    }
+
+    private static @Nullable CompoundTag readChunk(final ByteBuffer data, final byte compression) throws IOException {
+        final InputStream raw = new ByteBufferInputStream(data);
+        final InputStream in;
+        switch (compression) {
+        case GZIP:
+            in = new GZIPInputStream(raw);
+            break;
+        case ZLIB:
+            in = new InflaterInputStream(raw);
+            break;
+        case UNCOMPRESSED:
+            in = raw;
+            break;
+        default:
+            return null;
+        }
+
+        try (DataInputStream dataIn = new DataInputStream(new BufferedInputStream(in))) {
+            return NbtIo.read(dataIn);
+        }
+    }
+
+    private static void scanChunk(final CompoundTag chunk, final Stats stats) {
+        final ListTag blockEntities = chunk.getCompound("Level").getList("TileEntities", 10);
+        for (int i = 0, size = blockEntities.size(); i < size; i++) {
+            final CompoundTag blockEntity = blockEntities.getCompound(i);
+            final String id = blockEntity.getString("id");
+            if (FRAME_IDS.contains(id)) {
+                scanFrame(id, blockEntity, stats);
+            }
+        }
+    }
+
+    private static void scanFrame(final String id, final CompoundTag blockEntity, final Stats stats) {
+        stats.frames++;
+        stats.framesByType.merge(id, 1L, Long::sum);
+
+        if (!blockEntity.contains("frameData", 10)) {
+            stats.malformedFrames++;
+            return;
+        }
+        final CompoundTag frameTag = blockEntity.getCompound("frameData");
+
+        final FrameData data;
+        try {
+            data = FrameData.fromTag(frameTag);
+        } catch (final RuntimeException e) {
+            stats.malformedFrames++;
+            return;
+        }
+
+        stats.frameNbtBytes += FrameStats.sizeOf(frameTag);
+        stats.occupiedSlots += data.occupiedCount();
+
+        final Section base = data.sections().base();
+        for (int i = 0, size = base.size(); i < size; i++) {
+            final @Nullable BlockState baseState = data.getBaseState(i);
+            if (baseState != null) {
+                stats.baseStates.merge(baseState.toString(), 1L, Long::sum);
+            } else if (data.hasStack(base.makeAbsolute(i))) {
+                stats.unresolvedBaseStates++;
+            }
+        }
+
+        // read from the tag, since items of mods that aren't loaded here decode as empty stacks
+        final Section overlay = data.sections().overlay();
+        final ListTag items = frameTag.getList("Items", 10);
+        for (int i = 0, size = items.size(); i < size; i++) {
+            final CompoundTag stackTag = items.getCompound(i);
+            if (overlay.contains(stackTag.getByte("Slot") & 255)) {
+                stats.overlayItems.merge(stackTag.getString("id"), 1L, Long::sum);
+            }
+        }
+    }
+
+    private static void report(final Stats stats, final int top, final long nanos, final int threads) {
+        final PrintStream out = System.out;
+        out.printf("Scanned %d region files (%d chunks) in %.1f s on %d threads.%n", stats.regionFiles, stats.chunks, nanos / 1e9, threads);
+        out.printf("Chunks: %d malformed, %d stored externally (skipped).%n", stats.malformedChunks, stats.externalChunks);
+        out.printf("Frames: %d, of which %d malformed.%n", stats.frames, stats.malformedFrames);
+        stats.framesByType.forEach((id, count) -> out.printf("  %s: %d%n", id, count));
+
+        final long decoded = stats.frames - stats.malformedFrames;
+        if (decoded > 0) {
+            out.printf("Average frame data: %.1f bytes of NBT, %.2f occupied slots.%n", (double) stats.frameNbtBytes / decoded, (double) stats.occupiedSlots / decoded);
+        }
+
+        out.printf("Distinct base states: %d (%d base items could not be resolved).%n", stats.baseStates.size(), stats.unresolvedBaseStates);
+        printTop(out, stats.baseStates, top);
+        out.printf("Distinct overlay items: %d.%n", stats.overlayItems.size());
+        printTop(out, stats.overlayItems, top);
+    }
+
+    private static void printTop(final PrintStream out, final Map<String, Long> counts, final int top) {
+        counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(top)
+            .forEach(e -> out.printf("  %8d  %s%n", e.getValue(), e.getKey()));
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+    }
+}
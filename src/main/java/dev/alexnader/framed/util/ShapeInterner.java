@@ -0,0 +1,28 @@
+package dev.alexnader.framed.util;
+
+import net.minecraft.util.math.Box;
+import net.minecraft.util.shape.VoxelShape;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one {@link VoxelShape} instance between all shapes made of the same boxes, so that blocks whose states only
+ * differ in properties that don't affect geometry don't each hold their own copy, and shapes can be compared by identity.
+ */
+public class ShapeInterner {
+    private ShapeInterner() {
+        throw new IllegalStateException("Should not instantiate utility class.");
+    }
+
+    private static final Map<List<Box>, VoxelShape> SHAPES = new ConcurrentHashMap<>();
+
+    public static VoxelShape intern(final VoxelShape shape) {
+        return SHAPES.computeIfAbsent(shape.getBoundingBoxes(), boxes -> shape);
+    }
+
+    public static int size() {
+        return SHAPES.size();
+    }
+}